@@ -2,12 +2,16 @@ package org.vaadin.am4v.demo.ui;
 
 import org.vaadin.am4v.demo.domain.Folder;
 import org.vaadin.am4v.demo.domain.FolderService;
+import org.vaadin.am4v.framework.binding.FieldBinding;
 import org.vaadin.am4v.framework.model.ApplicationAction;
 import org.vaadin.am4v.framework.model.ApplicationModel;
 import org.vaadin.am4v.framework.model.ApplicationProperty;
+import org.vaadin.am4v.framework.model.AsyncValidation;
+import org.vaadin.am4v.framework.model.BroadcastScope;
+import org.vaadin.am4v.framework.model.ValidationGraph;
+import org.vaadin.am4v.framework.model.ValidationResult;
 import org.vaadin.am4v.framework.model.experimental.WeakOneWayProperty;
 
-import com.vaadin.data.Validator;
 import com.vaadin.data.validator.StringLengthValidator;
 
 /**
@@ -22,18 +26,19 @@ public class AddFolderModel extends ApplicationModel {
 
     private final ApplicationProperty<String> name = new ApplicationProperty<>(null, String.class);
 
+    private final ValidationGraph validation = new ValidationGraph();
+
     private final WeakOneWayProperty.Backend<Boolean> windowClosed = new WeakOneWayProperty.Backend<>(false,
         Boolean.class);
 
     private final ApplicationAction create = new ApplicationAction(action -> {
-        try {
-            name.validate();
+        if (validation.isValid()) {
             Folder folder = FolderService.getInstance().addFolder(parentFolder, name.getValue(), true);
-            broadcastMessage(new FolderAdded(folder));
+            // Other users and tabs should also see the new folder
+            broadcastMessage(new FolderAdded(folder), BroadcastScope.APPLICATION);
             windowClosed.setValue(true);
-        } catch (Validator.InvalidValueException ex) {
-            // NOP, the UI is already showing the error
         }
+        // Otherwise NOP, the UI is already showing the error
     });
 
     public AddFolderModel(ApplicationModel parentModel, Folder parentFolder) {
@@ -41,6 +46,19 @@ public class AddFolderModel extends ApplicationModel {
         this.parentFolder = parentFolder;
         name.addValidator(
             new StringLengthValidator("Please provide a name for the folder", 1, Integer.MAX_VALUE, false));
+        // Send the name while the user is typing, so that the create button follows the validation state
+        name.setCommitPolicy(FieldBinding.CommitPolicy.debounced(300));
+        validation.addProperty(name);
+        // Checking the existing folders could be slow, so do it in the background while the user is typing
+        AsyncValidation<String> uniqueName = new AsyncValidation<>(this, name, value -> isNameTaken(parentFolder, value)
+            ? ValidationResult.error("There is already a folder with that name") : ValidationResult.ok());
+        validation.addRule(uniqueName.asRule());
+        create.setEnabledWhen(() -> validation.getValid().getBoolean());
+    }
+
+    private static boolean isNameTaken(Folder parentFolder, String name) {
+        return FolderService.getInstance().getChildren(parentFolder).stream()
+            .anyMatch(folder -> folder.getName().equalsIgnoreCase(name));
     }
 
     /**
@@ -61,7 +79,7 @@ public class AddFolderModel extends ApplicationModel {
     }
 
     /**
-     * Action that will create the new folder and broadcast the {@link FolderAdded} message.
+     * Action that will create the new folder and broadcast the {@link FolderAdded} message to all sessions.
      */
     public ApplicationAction getCreate() {
         return create;
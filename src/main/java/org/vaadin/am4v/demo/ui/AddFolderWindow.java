@@ -51,7 +51,7 @@ public class AddFolderWindow extends Window implements ParameterizedWindow {
     @Override
     public void detach() {
         if (applicationModel != null) {
-            applicationModel.detachFromParent();
+            applicationModel.dispose();
         }
         super.detach();
     }
@@ -98,13 +98,10 @@ public class FolderTreeModel extends ApplicationModel {
 
     public FolderTreeModel(MainModel parent) {
         super(parent);
-        // When a new folder is added, we want to refresh the tree.
-        registerMessageHandler(FolderAdded.class, (source, msg) -> refresh.run());
-        selected.addValueChangeListener(evt -> {
-            addFolder.setEnabled(selected.getValue() != null);
-            removeFolder.setEnabled(selected.getValue() != null && selected.getValue().isUserCreated());
-        });
-        selected.setValue(null);
+        // When new folders are added, we want to refresh the tree once, no matter how many folders were added.
+        registerCoalescingMessageHandler(FolderAdded.class, (source, msg) -> refresh.run());
+        addFolder.setEnabledWhen(() -> selected.getValue() != null);
+        removeFolder.setEnabledWhen(() -> selected.getValue() != null && selected.getValue().isUserCreated());
         refresh.run();
         initialized = true;
     }
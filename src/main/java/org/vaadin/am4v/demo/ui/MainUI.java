@@ -1,10 +1,15 @@
 package org.vaadin.am4v.demo.ui;
 
+import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 
+import org.vaadin.am4v.framework.SharedExecutors;
+import org.vaadin.am4v.framework.model.MessageBus;
+import org.vaadin.am4v.framework.ui.BatchingPushStrategy;
 import org.vaadin.am4v.framework.ui.ProviderBasedWindowStrategy;
 import org.vaadin.am4v.framework.ui.SingleWindowProvider;
 
+import com.vaadin.annotations.Push;
 import com.vaadin.annotations.Theme;
 import com.vaadin.annotations.VaadinServletConfiguration;
 import com.vaadin.server.VaadinRequest;
@@ -18,6 +23,7 @@ import com.vaadin.ui.themes.ValoTheme;
  * needed.
  */
 @Theme(value = ValoTheme.THEME_NAME)
+@Push
 public class MainUI extends UI {
 
     private final MainModel mainModel = new MainModel();
@@ -33,6 +39,14 @@ public class MainUI extends UI {
         windowStrategy.addWindow(AddFolderWindow.class);
         mainModel.setWindowStrategy(windowStrategy);
 
+        // Messages from other UIs and sessions arrive in background threads, so we cannot rely on UI.getCurrent().
+        // If the browser falls behind, the queued updates are replaced with a full refresh of the folder tree.
+        mainModel.setPushStrategy(new BatchingPushStrategy(this)
+            .setOverflowPolicy(BatchingPushStrategy.OverflowPolicy.REFRESH)
+            .setRefreshJob(folderTreeModel.refresh));
+        mainModel.joinMessageBus(MessageBus.getDefault(), getSession());
+        addDetachListener(evt -> mainModel.dispose());
+
         final HorizontalSplitPanel rootPanel = new HorizontalSplitPanel();
         rootPanel.setSizeFull();
         rootPanel.setSplitPosition(20, Unit.PERCENTAGE);
@@ -72,7 +86,13 @@ public class MainUI extends UI {
     }
 
     @VaadinServletConfiguration(ui = MainUI.class, productionMode = false)
-    @WebServlet(urlPatterns = "/*")
+    @WebServlet(urlPatterns = "/*", asyncSupported = true)
     public static class Servlet extends VaadinServlet {
+
+        @Override
+        protected void servletInitialized() throws ServletException {
+            super.servletInitialized();
+            SharedExecutors.shutdownOnDestroy(getService());
+        }
     }
 }
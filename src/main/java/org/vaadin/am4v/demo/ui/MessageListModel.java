@@ -1,12 +1,14 @@
 package org.vaadin.am4v.demo.ui;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import org.vaadin.am4v.demo.domain.Folder;
 import org.vaadin.am4v.demo.domain.Message;
 import org.vaadin.am4v.demo.domain.MessageService;
 import org.vaadin.am4v.framework.model.ApplicationModel;
 import org.vaadin.am4v.framework.model.ApplicationProperty;
+import org.vaadin.am4v.framework.model.BackgroundLoader;
 
 import com.vaadin.data.Container;
 import com.vaadin.data.Item;
@@ -35,6 +37,13 @@ public class MessageListModel extends ApplicationModel {
         }
     };
 
+    /**
+     * Loads the messages of the selected folder in the background. When the user moves quickly through the folder tree,
+     * only the messages of the folder that ends up selected are loaded and shown.
+     */
+    private final BackgroundLoader<Folder, List<Message>> messageLoader = new BackgroundLoader<>(this,
+        this::loadMessages, this::messagesLoaded).setDebounceDelay(150);
+
     public MessageListModel(FolderTreeModel parent) {
         super(parent);
         // This model has the same scope as the parent model so no need to remove the listener afterwards
@@ -42,12 +51,23 @@ public class MessageListModel extends ApplicationModel {
     }
 
     private void folderSelected(Folder folder) {
-        messages.removeAllItems();
-        if (folder != null) {
-            MessageService.getInstance().getMessagesInFolder(folder).forEach(this::addMessageToContainer);
+        if (folder == null) {
+            messageLoader.cancel();
+            messages.removeAllItems();
+        } else {
+            messageLoader.load(folder);
         }
     }
 
+    private List<Message> loadMessages(Folder folder) {
+        return MessageService.getInstance().getMessagesInFolder(folder);
+    }
+
+    private void messagesLoaded(Folder folder, List<Message> loadedMessages) {
+        messages.removeAllItems();
+        loadedMessages.forEach(this::addMessageToContainer);
+    }
+
     private void addMessageToContainer(Message message) {
         Item item = messages.addItem(message);
         item.getItemProperty("Subject").setValue(message.getSubject());
@@ -67,29 +67,22 @@ public class MessageModel extends ApplicationModel {
     }
 
     private void messageSelected(Message message) {
-        if (message != null) {
-            setValue(subject, message.getSubject());
-            setValue(sender, message.getFrom());
-            setValue(recipient, String.join(", ", message.getTo()));
-            setValue(cc, String.join(", ", message.getCc()));
-            cc.setVisible(message.getCc().size() > 0);
-            setValue(body, message.getBody());
-        } else {
-            setValue(subject, null);
-            setValue(sender, null);
-            setValue(recipient, null);
-            setValue(cc, null);
-            setValue(body, null);
-        }
-    }
-
-    private static <T> void setValue(ApplicationProperty<T> property, T value) {
-        boolean wasReadOnly = property.isReadOnly();
-        property.setReadOnly(false);
-        try {
-            property.setValue(value);
-        } finally {
-            property.setReadOnly(wasReadOnly);
-        }
+        // Update everything in one go so that the view never shows a half updated message
+        batch(() -> {
+            if (message != null) {
+                setValue(subject, message.getSubject());
+                setValue(sender, message.getFrom());
+                setValue(recipient, String.join(", ", message.getTo()));
+                setValue(cc, String.join(", ", message.getCc()));
+                cc.setVisible(message.getCc().size() > 0);
+                setValue(body, message.getBody());
+            } else {
+                setValue(subject, null);
+                setValue(sender, null);
+                setValue(recipient, null);
+                setValue(cc, null);
+                setValue(body, null);
+            }
+        });
     }
 }
@@ -0,0 +1,24 @@
+package org.vaadin.am4v.framework;
+
+import java.io.Serializable;
+
+/**
+ * Handle returned when registering a listener, handler or binding. Calling {@link #remove()} removes exactly what was
+ * registered, which means that the caller does not have to hold on to the original listener instance (which is easy
+ * to get wrong with method references, since {@code this::onChange} creates a new, unequal instance every time it is
+ * evaluated).
+ */
+@FunctionalInterface
+public interface Registration extends Serializable {
+
+    /**
+     * A registration that does nothing when removed, returned when there was nothing to register.
+     */
+    Registration NONE = () -> {
+    };
+
+    /**
+     * Removes the registration. If it has already been removed, nothing happens.
+     */
+    void remove();
+}
@@ -0,0 +1,63 @@
+package org.vaadin.am4v.framework;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+import com.vaadin.server.VaadinService;
+
+/**
+ * Keeps track of the executors that the framework shares between all the sessions of the application, such as the
+ * thread pool of the default {@link org.vaadin.am4v.framework.model.ExecutionStrategy ExecutionStrategy}. The shared
+ * executors are created when first needed and then live as long as their classes, so their threads would keep the
+ * class loader of the application alive after it has been undeployed. To prevent this, the executors are shut down
+ * when the {@link VaadinService} is destroyed:
+ * <pre>
+ * public static class Servlet extends VaadinServlet {
+ *     protected void servletInitialized() throws ServletException {
+ *         super.servletInitialized();
+ *         SharedExecutors.shutdownOnDestroy(getService());
+ *     }
+ * }
+ * </pre>
+ * Once shut down, the shared executors reject all tasks, so this should only be done when the application is going
+ * away.
+ */
+public final class SharedExecutors {
+
+    private static final List<ExecutorService> EXECUTORS = new CopyOnWriteArrayList<>();
+
+    private SharedExecutors() {
+    }
+
+    /**
+     * Registers a shared executor so that it will be shut down together with the others.
+     *
+     * @param executor the executor to register.
+     * @return {@code executor}, to make it possible to register the executor where it is created.
+     */
+    public static <E extends ExecutorService> E register(E executor) {
+        EXECUTORS.add(Objects.requireNonNull(executor, "executor must not be null"));
+        return executor;
+    }
+
+    /**
+     * Shuts down the shared executors when the specified service is destroyed.
+     *
+     * @param service the service of the application.
+     */
+    public static void shutdownOnDestroy(VaadinService service) {
+        Objects.requireNonNull(service, "service must not be null").addServiceDestroyListener(event -> shutdown());
+    }
+
+    /**
+     * Shuts down all the registered executors right away, interrupting any running tasks.
+     */
+    public static void shutdown() {
+        for (ExecutorService executor : EXECUTORS) {
+            executor.shutdownNow();
+        }
+        EXECUTORS.clear();
+    }
+}
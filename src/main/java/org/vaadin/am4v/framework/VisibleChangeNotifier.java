@@ -27,8 +27,20 @@ public interface VisibleChangeNotifier extends Serializable {
      * is {@code null}, nothing happens.
      *
      * @param listener the listener to add.
+     * @return a registration for removing the listener (never {@code null}).
      */
-    void addVisibleChangeListener(VisibleChangeListener listener);
+    Registration addVisibleChangeListener(VisibleChangeListener listener);
+
+    /**
+     * Registers the specified listener to be notified when the {@code visible} state is changed, using a weak
+     * reference. The listener will be removed automatically once it has been garbage collected, so this is useful for
+     * listeners owned by short-lived views. Remember that the owner must keep a strong reference to the listener
+     * (e.g. in a field) for as long as it should be notified. If the listener is {@code null}, nothing happens.
+     *
+     * @param listener the listener to add.
+     * @return a registration for removing the listener (never {@code null}).
+     */
+    Registration addWeakVisibleChangeListener(VisibleChangeListener listener);
 
     /**
      * Removes the specified listener. After this, it will no longer be notified when the {@code visible} state is
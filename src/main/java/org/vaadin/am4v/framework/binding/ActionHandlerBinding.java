@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.vaadin.am4v.framework.Registration;
 import org.vaadin.am4v.framework.model.ApplicationAction;
 import org.vaadin.am4v.framework.model.ContextualApplicationAction;
 
@@ -65,14 +66,16 @@ public class ActionHandlerBinding implements Action.Handler {
      * 
      * @param action the action.
      * @param applicationAction the application action.
+     * @return a registration that unbinds the action, unless it has already been unbound (never {@code null}).
      * @throws IllegalStateException if the action does not exist or has already been bound to an ApplicationAction.
      */
-    public void bind(Action action, ApplicationAction applicationAction) {
+    public Registration bind(Action action, ApplicationAction applicationAction) {
         if (actionList.contains(action)) {
             if (actionToApplicationActionMap.containsKey(action)) {
                 throw new IllegalStateException("The Action is already bound to an ApplicationAction");
             }
             actionToApplicationActionMap.put(action, applicationAction);
+            return () -> actionToApplicationActionMap.remove(action, applicationAction);
         } else {
             throw new IllegalStateException("No such Action found");
         }
@@ -5,6 +5,7 @@ import java.util.Objects;
 import java.util.Optional;
 
 import org.vaadin.am4v.framework.EnabledChangeNotifier;
+import org.vaadin.am4v.framework.Registration;
 import org.vaadin.am4v.framework.VisibleChangeNotifier;
 
 /**
@@ -14,6 +15,8 @@ public abstract class Binding<MODEL, VIEW> implements Serializable {
 
     private final MODEL model;
     private final VIEW view;
+    private Registration enabledChangeRegistration = Registration.NONE;
+    private Registration visibleChangeRegistration = Registration.NONE;
 
     /**
      * Creates a new binding between the given model and view elements. Remember to also call {@link #bind()} to
@@ -77,6 +80,13 @@ public abstract class Binding<MODEL, VIEW> implements Serializable {
      */
     protected abstract void onEnabledChange(EnabledChangeNotifier source);
 
+    /**
+     * Updates the view element with the current enablement and visibility state of the model element. Called by the
+     * {@link ViewUpdateQueue} for bindings that have scheduled an update. The default implementation does nothing.
+     */
+    void applyModelState() {
+    }
+
     /**
      * Performs the actual binding, registering listeners, etc. Subclasses may override but must remember to call
      * {@code super.bind()}.
@@ -84,13 +94,14 @@ public abstract class Binding<MODEL, VIEW> implements Serializable {
      * @see #unbind()
      */
     public void bind() {
-        Optional<EnabledChangeNotifier> enabledChangeNotifier = getModelAs(EnabledChangeNotifier.class);
-        enabledChangeNotifier.ifPresent(m -> m.addEnabledChangeListener(this::onEnabledChange));
-        enabledChangeNotifier.ifPresent(this::onEnabledChange);
-
-        Optional<VisibleChangeNotifier> visibleChangeNotifier = getModelAs(VisibleChangeNotifier.class);
-        visibleChangeNotifier.ifPresent(m -> m.addVisibleChangeListener(this::onVisibleChange));
-        visibleChangeNotifier.ifPresent(this::onVisibleChange);
+        getModelAs(EnabledChangeNotifier.class).ifPresent(m -> {
+            enabledChangeRegistration = m.addEnabledChangeListener(this::onEnabledChange);
+            onEnabledChange(m);
+        });
+        getModelAs(VisibleChangeNotifier.class).ifPresent(m -> {
+            visibleChangeRegistration = m.addVisibleChangeListener(this::onVisibleChange);
+            onVisibleChange(m);
+        });
     }
 
     /**
@@ -98,7 +109,10 @@ public abstract class Binding<MODEL, VIEW> implements Serializable {
      * resources. Subclasses may override but must remember to call {@code super.bind()}.
      */
     public void unbind() {
-        getModelAs(VisibleChangeNotifier.class).ifPresent(m -> m.removeVisibleChangeListener(this::onVisibleChange));
-        getModelAs(EnabledChangeNotifier.class).ifPresent(m -> m.removeEnabledChangeListener(this::onEnabledChange));
+        visibleChangeRegistration.remove();
+        visibleChangeRegistration = Registration.NONE;
+        enabledChangeRegistration.remove();
+        enabledChangeRegistration = Registration.NONE;
+        ViewUpdateQueue.cancel(this);
     }
 }
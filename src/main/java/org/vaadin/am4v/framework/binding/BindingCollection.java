@@ -1,10 +1,14 @@
 package org.vaadin.am4v.framework.binding;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import org.vaadin.am4v.framework.Registration;
+
 /**
  * A collection of bindings, mainly used by models to keep track of bindings and their views so that they can be
  * properly unbound when no longer needed.
@@ -17,9 +21,10 @@ public class BindingCollection implements Serializable {
      * Adds the specified binding to the collection of bindings and invokes its {@link Binding#bind()} method.
      * 
      * @param binding the binding to register.
+     * @return a registration that unbinds the binding, unless it has already been unbound (never {@code null}).
      * @throws IllegalStateException if a binding has already been registered for the same view.
      */
-    public <VIEW> void bind(Binding<?, VIEW> binding) {
+    public <VIEW> Registration bind(Binding<?, VIEW> binding) {
         Objects.requireNonNull(binding, "binding must not be null");
         VIEW view = binding.getView();
         if (bindingMap.containsKey(view)) {
@@ -27,6 +32,11 @@ public class BindingCollection implements Serializable {
         }
         bindingMap.put(view, binding);
         binding.bind();
+        return () -> {
+            if (bindingMap.remove(view, binding)) {
+                binding.unbind();
+            }
+        };
     }
 
     /**
@@ -42,4 +52,13 @@ public class BindingCollection implements Serializable {
             binding.unbind();
         }
     }
+
+    /**
+     * Removes all bindings from the collection and invokes their {@link Binding#unbind()} methods.
+     */
+    public void unbindAll() {
+        List<Binding<?, ?>> bindings = new ArrayList<>(bindingMap.values());
+        bindingMap.clear();
+        bindings.forEach(Binding::unbind);
+    }
 }
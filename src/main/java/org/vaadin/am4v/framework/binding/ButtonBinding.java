@@ -14,6 +14,8 @@ import com.vaadin.ui.Button;
  */
 public class ButtonBinding<MODEL extends Serializable> extends ComponentBinding<MODEL, Button> {
 
+    private final Button.ClickListener clickListener = this::onButtonClick;
+
     /**
      * Creates a new binding between the given model and view elements. Remember to also call {@link #bind()} to
      * perform the actual binding.
@@ -44,12 +46,12 @@ public class ButtonBinding<MODEL extends Serializable> extends ComponentBinding<
     @Override
     public void bind() {
         super.bind();
-        getView().addClickListener(this::onButtonClick);
+        getView().addClickListener(clickListener);
     }
 
     @Override
     public void unbind() {
-        getView().removeClickListener(this::onButtonClick);
+        getView().removeClickListener(clickListener);
         super.unbind();
     }
 }
@@ -1,18 +1,34 @@
 package org.vaadin.am4v.framework.binding;
 
 import java.io.Serializable;
+import java.util.Optional;
 
 import org.vaadin.am4v.framework.EnabledChangeNotifier;
 import org.vaadin.am4v.framework.VisibleChangeNotifier;
 
+import com.vaadin.server.ClientConnector;
 import com.vaadin.ui.Component;
 
 /**
  * A binding that binds any model element to a {@link Component}. Changes to the visibility and enablement flags of the
  * model element are reflected in the component but not the other way around.
+ * <p>
+ * Flag changes made while the session is locked are coalesced and applied to the component just before the response
+ * is written, so that a component whose flags are toggled several times within a request is only updated once, if at
+ * all. The initial state is applied right away when the binding is {@link #bind() bound}.
+ * <p>
+ * The binding only keeps the component in sync while it is attached to a UI. Changes made while the component is
+ * detached are not applied until the component is attached again, at which point the latest state of the model
+ * element is applied in one step. Likewise, while the model element keeps the component hidden, changes to its
+ * enablement flag are held back until it is shown again. (Components that are hidden because e.g. they are in an
+ * unselected tab need no special treatment, since Vaadin does not send their state to the client until they are
+ * shown.)
  */
 public class ComponentBinding<MODEL extends Serializable, VIEW extends Component> extends Binding<MODEL, VIEW> {
 
+    private final ClientConnector.AttachListener attachListener = this::onAttach;
+    private boolean stale;
+
     /**
      * Creates a new binding between the given model and view elements. Remember to also call {@link #bind()} to
      * perform the actual binding.
@@ -26,11 +42,76 @@ public class ComponentBinding<MODEL extends Serializable, VIEW extends Component
 
     @Override
     protected void onVisibleChange(VisibleChangeNotifier source) {
-        getView().setVisible(source.isVisible());
+        scheduleUpdate();
     }
 
     @Override
     protected void onEnabledChange(EnabledChangeNotifier source) {
-        getView().setEnabled(source.isEnabled());
+        scheduleUpdate();
+    }
+
+    /**
+     * Applies the latest state of the model element to the component if it has changed while the component was
+     * detached.
+     *
+     * @param event the attach event from the component.
+     */
+    protected void onAttach(ClientConnector.AttachEvent event) {
+        if (stale) {
+            ViewUpdateQueue.schedule(this);
+        }
+    }
+
+    /**
+     * Checks whether the component has missed changes to the model element while it was detached.
+     *
+     * @return true if the component is out of sync with the model element, false otherwise.
+     */
+    protected final boolean isStale() {
+        return stale;
+    }
+
+    @Override
+    public void bind() {
+        super.bind();
+        getView().addAttachListener(attachListener);
+        stale = false;
+        applyFlags(true);
+    }
+
+    @Override
+    public void unbind() {
+        getView().removeAttachListener(attachListener);
+        super.unbind();
+    }
+
+    private void scheduleUpdate() {
+        if (getView().isAttached()) {
+            ViewUpdateQueue.schedule(this);
+        } else {
+            stale = true;
+        }
+    }
+
+    @Override
+    void applyModelState() {
+        // The component may have been detached after the update was scheduled
+        if (getView().isAttached()) {
+            stale = false;
+            applyFlags(false);
+        } else {
+            stale = true;
+        }
+    }
+
+    private void applyFlags(boolean always) {
+        // Setting a flag marks the component as dirty even if the value does not change
+        Optional<Boolean> visible = getModelAs(VisibleChangeNotifier.class).map(VisibleChangeNotifier::isVisible);
+        visible.filter(v -> v != getView().isVisible()).ifPresent(getView()::setVisible);
+        if (always || visible.orElse(true)) {
+            // If the model hides the component, the enablement is applied when the model shows it again
+            getModelAs(EnabledChangeNotifier.class).map(EnabledChangeNotifier::isEnabled)
+                .filter(enabled -> enabled != getView().isEnabled()).ifPresent(getView()::setEnabled);
+        }
     }
 }
@@ -1,17 +1,28 @@
 package org.vaadin.am4v.framework.binding;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 import com.vaadin.data.Property;
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.data.util.converter.ConverterUtil;
+import com.vaadin.event.FieldEvents;
 import com.vaadin.ui.AbstractField;
+import com.vaadin.ui.AbstractTextField;
 
 /**
  * A binding that binds any model element to a {@link AbstractField}. If the model element implements {@link Property},
  * it will be bound to the field using {@link AbstractField#setPropertyDataSource(Property)}. Changes to the visibility
  * and enablement flags of the model element are reflected in the button but not the other way around.
+ * <p>
+ * When the value of the field is sent to the server, and thereby written to the model element, is controlled by the
+ * {@link CommitPolicy}. The default policy is {@link CommitPolicy#onBlur()}.
  */
 public class FieldBinding<MODEL extends Serializable> extends ComponentBinding<MODEL, AbstractField> {
 
+    private final FieldEvents.TextChangeListener textChangeListener = this::onTextChange;
+    private CommitPolicy commitPolicy = CommitPolicy.onBlur();
+
     /**
      * Creates a new binding between the given model and view elements. Remember to also call {@link #bind()} to
      * perform the actual binding.
@@ -23,6 +34,40 @@ public class FieldBinding<MODEL extends Serializable> extends ComponentBinding<M
         super(model, field);
     }
 
+    /**
+     * Creates a new binding between the given model and view elements that uses the specified commit policy. Remember
+     * to also call {@link #bind()} to perform the actual binding.
+     *
+     * @param model the model element.
+     * @param field the view element (i.e. the field).
+     * @param commitPolicy the commit policy, or {@code null} to use the default policy.
+     */
+    public FieldBinding(MODEL model, AbstractField<?> field, CommitPolicy commitPolicy) {
+        super(model, field);
+        setCommitPolicy(commitPolicy);
+    }
+
+    /**
+     * Sets the policy that controls when the value of the field is committed to the model element. The policy must be
+     * set before the binding is {@link #bind() bound}.
+     *
+     * @param commitPolicy the commit policy, or {@code null} to use the default policy.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public FieldBinding<MODEL> setCommitPolicy(CommitPolicy commitPolicy) {
+        this.commitPolicy = commitPolicy == null ? CommitPolicy.onBlur() : commitPolicy;
+        return this;
+    }
+
+    /**
+     * Returns the policy that controls when the value of the field is committed to the model element.
+     *
+     * @return the commit policy (never {@code null}).
+     */
+    public CommitPolicy getCommitPolicy() {
+        return commitPolicy;
+    }
+
     @Override
     public void bind() {
         super.bind();
@@ -30,12 +75,176 @@ public class FieldBinding<MODEL extends Serializable> extends ComponentBinding<M
         getView().setInvalidCommitted(true);
         getView().setBuffered(false);
         getView().setValidationVisible(true);
-        getView().setImmediate(true);
+        getView().setImmediate(commitPolicy.mode != CommitMode.DEFERRED);
+        if (commitPolicy.mode.textChangeEventMode != null && getView() instanceof AbstractTextField) {
+            AbstractTextField textField = (AbstractTextField) getView();
+            textField.setTextChangeEventMode(commitPolicy.mode.textChangeEventMode);
+            if (commitPolicy.mode.textChangeEventMode != AbstractTextField.TextChangeEventMode.EAGER) {
+                textField.setTextChangeTimeout(commitPolicy.interval);
+            }
+            textField.addTextChangeListener(textChangeListener);
+        }
     }
 
     @Override
     public void unbind() {
+        if (getView() instanceof AbstractTextField) {
+            ((AbstractTextField) getView()).removeTextChangeListener(textChangeListener);
+        }
         getView().setPropertyDataSource(null);
         super.unbind();
     }
+
+    @SuppressWarnings("unchecked")
+    private void onTextChange(FieldEvents.TextChangeEvent event) {
+        Property<Object> property = getModelAs(Property.class).orElse(null);
+        if (property == null) {
+            return;
+        }
+        // Write to the model element rather than setting the value of the field, which would send the text back to the
+        // client and could overwrite whatever the user has typed in the meantime. The field is updated by its data
+        // source listener, but the client ignores the value since it is the text the user is editing.
+        AbstractTextField textField = (AbstractTextField) getView();
+        String text = event.getText();
+        if (textField.isNullSettingAllowed() && Objects.equals(text, textField.getNullRepresentation())) {
+            text = null;
+        }
+        try {
+            property.setValue(ConverterUtil.convertToModel(text, (Class<Object>) property.getType(),
+                textField.getConverter(), textField.getLocale()));
+        } catch (Converter.ConversionException | Property.ReadOnlyException ex) {
+            // The user has not finished typing yet, the value is committed when the field loses focus
+        }
+    }
+
+    /**
+     * The modes of {@link CommitPolicy}.
+     */
+    public enum CommitMode {
+        /**
+         * The value is sent when the field loses focus or the user presses enter.
+         */
+        ON_BLUR(null),
+        /**
+         * The value is not sent on its own, but together with the next request caused by something else, such as a
+         * button click.
+         */
+        DEFERRED(null),
+        /**
+         * The value is sent on every keystroke.
+         */
+        EAGER(AbstractTextField.TextChangeEventMode.EAGER),
+        /**
+         * The value is sent at most once per interval while the user is typing.
+         */
+        THROTTLED(AbstractTextField.TextChangeEventMode.TIMEOUT),
+        /**
+         * The value is sent when the user has stopped typing for the duration of the interval.
+         */
+        DEBOUNCED(AbstractTextField.TextChangeEventMode.LAZY);
+
+        private final AbstractTextField.TextChangeEventMode textChangeEventMode;
+
+        CommitMode(AbstractTextField.TextChangeEventMode textChangeEventMode) {
+            this.textChangeEventMode = textChangeEventMode;
+        }
+    }
+
+    /**
+     * Policy controlling when the value of a bound field is sent to the server and committed to the model element.
+     * The text based policies ({@link #eager()}, {@link #throttled(int)} and {@link #debounced(int)}) only apply to
+     * text fields; other fields commit on blur (or on change, for fields such as check boxes and combo boxes) with
+     * those policies. Policies are immutable and can be shared.
+     *
+     * @see org.vaadin.am4v.framework.model.ApplicationProperty#setCommitPolicy(CommitPolicy)
+     */
+    public static final class CommitPolicy implements Serializable {
+
+        private static final CommitPolicy ON_BLUR = new CommitPolicy(CommitMode.ON_BLUR, 0);
+        private static final CommitPolicy DEFERRED = new CommitPolicy(CommitMode.DEFERRED, 0);
+        private static final CommitPolicy EAGER = new CommitPolicy(CommitMode.EAGER, 0);
+
+        private final CommitMode mode;
+        private final int interval;
+
+        private CommitPolicy(CommitMode mode, int interval) {
+            this.mode = Objects.requireNonNull(mode);
+            this.interval = interval;
+        }
+
+        /**
+         * Returns the policy that commits the value when the field loses focus. This is the default policy.
+         *
+         * @return the policy.
+         */
+        public static CommitPolicy onBlur() {
+            return ON_BLUR;
+        }
+
+        /**
+         * Returns the policy that commits the value together with the next request caused by something else. This
+         * causes the least server traffic, but the model does not see the value until e.g. a button is clicked.
+         *
+         * @return the policy.
+         */
+        public static CommitPolicy deferred() {
+            return DEFERRED;
+        }
+
+        /**
+         * Returns the policy that commits the value of a text field on every keystroke.
+         *
+         * @return the policy.
+         */
+        public static CommitPolicy eager() {
+            return EAGER;
+        }
+
+        /**
+         * Returns the policy that commits the value of a text field at most once per interval while the user is
+         * typing.
+         *
+         * @param interval the interval in milliseconds.
+         * @return the policy.
+         */
+        public static CommitPolicy throttled(int interval) {
+            return new CommitPolicy(CommitMode.THROTTLED, checkInterval(interval));
+        }
+
+        /**
+         * Returns the policy that commits the value of a text field when the user has stopped typing for the
+         * duration of the interval.
+         *
+         * @param interval the interval in milliseconds.
+         * @return the policy.
+         */
+        public static CommitPolicy debounced(int interval) {
+            return new CommitPolicy(CommitMode.DEBOUNCED, checkInterval(interval));
+        }
+
+        private static int checkInterval(int interval) {
+            if (interval < 0) {
+                throw new IllegalArgumentException("interval must not be negative");
+            }
+            return interval;
+        }
+
+        /**
+         * Returns the mode of this policy.
+         *
+         * @return the mode.
+         */
+        public CommitMode getMode() {
+            return mode;
+        }
+
+        /**
+         * Returns the interval of a throttled or debounced policy.
+         *
+         * @return the interval in milliseconds, or 0 for the other policies.
+         */
+        public int getInterval() {
+            return interval;
+        }
+    }
 }
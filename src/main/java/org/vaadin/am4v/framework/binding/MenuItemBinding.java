@@ -10,7 +10,8 @@ import com.vaadin.ui.MenuBar;
 /**
  * A binding that binds any model element to a {@link com.vaadin.ui.MenuBar.MenuItem}. If the model element implements
  * {@link Runnable}, it will be invoked whenever the menu item is clicked. Changes to the visibility and enablement
- * flags of the model element are reflected in the menu item but not the other way around.
+ * flags of the model element are reflected in the menu item but not the other way around. As with
+ * {@link ComponentBinding}, flag changes are coalesced and applied just before the response is written.
  */
 public class MenuItemBinding<MODEL extends Serializable> extends Binding<MODEL, MenuBar.MenuItem> {
 
@@ -36,17 +37,27 @@ public class MenuItemBinding<MODEL extends Serializable> extends Binding<MODEL,
 
     @Override
     protected void onVisibleChange(VisibleChangeNotifier source) {
-        getView().setVisible(source.isVisible());
+        ViewUpdateQueue.schedule(this);
     }
 
     @Override
     protected void onEnabledChange(EnabledChangeNotifier source) {
-        getView().setEnabled(source.isEnabled());
+        ViewUpdateQueue.schedule(this);
+    }
+
+    @Override
+    void applyModelState() {
+        // Setting a flag repaints the whole menu bar even if the value does not change
+        getModelAs(EnabledChangeNotifier.class).map(EnabledChangeNotifier::isEnabled)
+            .filter(enabled -> enabled != getView().isEnabled()).ifPresent(getView()::setEnabled);
+        getModelAs(VisibleChangeNotifier.class).map(VisibleChangeNotifier::isVisible)
+            .filter(visible -> visible != getView().isVisible()).ifPresent(getView()::setVisible);
     }
 
     @Override
     public void unbind() {
         getView().setCommand(null);
+        super.unbind();
     }
 
     @Override
@@ -55,5 +66,7 @@ public class MenuItemBinding<MODEL extends Serializable> extends Binding<MODEL,
             throw new IllegalStateException("The menu item already has a Command assigned");
         }
         getView().setCommand(this::onMenuItemSelected);
+        super.bind();
+        applyModelState();
     }
 }
@@ -0,0 +1,90 @@
+package org.vaadin.am4v.framework.binding;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.vaadin.server.VaadinSession;
+
+/**
+ * Session bound queue that collects the bindings whose model elements have changed their enablement or visibility
+ * flags, so that each view element is updated only once with the final state of its model element. The queue is
+ * flushed by an {@link VaadinSession#access(Runnable) access task}, which Vaadin runs just before the response (or
+ * push message) is written, which in practice means that flag changes are coalesced within the request or UI access
+ * that triggered them. A model element that is toggled back and forth within a request does not cause any changes to
+ * be sent to the client at all.
+ * <p>
+ * If the current thread does not hold the lock of the current session, there is nothing to coalesce with and the
+ * bindings are updated right away.
+ */
+final class ViewUpdateQueue implements Serializable {
+
+    private final Set<Binding<?, ?>> pendingBindings = new LinkedHashSet<>();
+
+    private ViewUpdateQueue() {
+    }
+
+    /**
+     * Schedules the view element of the specified binding to be updated with the state of its model element before the
+     * response is written, or updates it right away if there is no locked session.
+     *
+     * @param binding the binding whose model element has changed.
+     */
+    static void schedule(Binding<?, ?> binding) {
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session == null || !session.hasLock()) {
+            binding.applyModelState();
+            return;
+        }
+        ViewUpdateQueue queue = session.getAttribute(ViewUpdateQueue.class);
+        if (queue == null) {
+            queue = new ViewUpdateQueue();
+            session.setAttribute(ViewUpdateQueue.class, queue);
+            // The session is locked by this thread, so the task is queued and run before the response is written
+            ViewUpdateQueue flushedQueue = queue;
+            session.access(() -> flushedQueue.flush(session));
+        }
+        queue.pendingBindings.add(binding);
+    }
+
+    /**
+     * Removes the specified binding from the queue of the current session, if it has a pending update.
+     *
+     * @param binding the binding to remove.
+     */
+    static void cancel(Binding<?, ?> binding) {
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session != null && session.hasLock()) {
+            ViewUpdateQueue queue = session.getAttribute(ViewUpdateQueue.class);
+            if (queue != null) {
+                queue.pendingBindings.remove(binding);
+            }
+        }
+    }
+
+    private void flush(VaadinSession session) {
+        // Updating a view element may cause listeners to change other model elements, so keep going until nothing is
+        // pending. Those changes end up in this queue since it is still registered with the session.
+        RuntimeException firstError = null;
+        try {
+            while (!pendingBindings.isEmpty()) {
+                Iterator<Binding<?, ?>> it = pendingBindings.iterator();
+                Binding<?, ?> binding = it.next();
+                it.remove();
+                try {
+                    binding.applyModelState();
+                } catch (RuntimeException ex) {
+                    if (firstError == null) {
+                        firstError = ex;
+                    }
+                }
+            }
+        } finally {
+            session.setAttribute(ViewUpdateQueue.class, null);
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+}
@@ -1,12 +1,11 @@
 package org.vaadin.am4v.framework.model;
 
 import java.io.Serializable;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Objects;
 
 import org.vaadin.am4v.framework.EnabledChangeListener;
 import org.vaadin.am4v.framework.EnabledChangeNotifier;
+import org.vaadin.am4v.framework.Registration;
 import org.vaadin.am4v.framework.VisibleChangeListener;
 import org.vaadin.am4v.framework.VisibleChangeNotifier;
 import org.vaadin.am4v.framework.binding.*;
@@ -28,10 +27,14 @@ import com.vaadin.ui.MenuBar;
 public class ApplicationAction implements EnabledChangeNotifier, VisibleChangeNotifier, Runnable {
 
     private final BindingCollection bindings = new BindingCollection();
-    private final List<EnabledChangeListener> enabledChangeListeners = new LinkedList<>();
-    private final List<VisibleChangeListener> visibleChangeListeners = new LinkedList<>();
+    private final ListenerArray<EnabledChangeListener> enabledChangeListeners = new ListenerArray<>();
+    private final ListenerArray<VisibleChangeListener> visibleChangeListeners = new ListenerArray<>();
     private boolean enabled = true;
     private boolean visible = true;
+    private ComputedProperty<Boolean> enabledCondition;
+    private Registration enabledConditionRegistration = Registration.NONE;
+    private ComputedProperty<Boolean> visibleCondition;
+    private Registration visibleConditionRegistration = Registration.NONE;
     private final ActionWorker worker;
 
     /**
@@ -55,33 +58,90 @@ public class ApplicationAction implements EnabledChangeNotifier, VisibleChangeNo
 
     /**
      * Performs the action. If an {@link ActionWorker} has been set, it will be executed. Otherwise, this method
-     * will throw an exception and will need to be overridden.
+     * will throw an exception and will need to be overridden. Messages broadcast by the worker to coalescing message
+     * handlers are delivered when the worker has completed.
+     *
+     * @see ApplicationModel#registerCoalescingMessageHandler(Class, ApplicationModel.MessageKeyExtractor,
+     *      ApplicationModel.MessageHandler)
      */
     @Override
     public void run() {
-        worker.execute(this);
+        MessageCoalescingScope.run(() -> worker.execute(this));
     }
 
+    /**
+     * Returns whether the action is enabled. An action is enabled if it has not been disabled using
+     * {@link #setEnabled(boolean)} and its {@link #setEnabledWhen(ComputedProperty.Expression) condition}, if any, is
+     * true.
+     */
     @Override
     public boolean isEnabled() {
-        return enabled;
+        return enabled && (enabledCondition == null || Boolean.TRUE.equals(enabledCondition.getValue()));
+    }
+
+    /**
+     * Makes the action enabled only when the specified condition is true, in addition to the
+     * {@link #setEnabled(boolean) enabled flag}. The condition is evaluated like a {@link ComputedProperty}: the
+     * application properties it reads are tracked automatically, the result is cached and the enabled change
+     * listeners are notified whenever any of those properties change. The condition is not evaluated until someone
+     * asks whether the action is enabled.
+     *
+     * @param condition the condition, or {@code null} to remove the current condition.
+     */
+    public void setEnabledWhen(ComputedProperty.Expression<Boolean> condition) {
+        boolean enabledBefore = isEnabled();
+        enabledConditionRegistration.remove();
+        if (condition == null) {
+            enabledCondition = null;
+            enabledConditionRegistration = Registration.NONE;
+        } else {
+            enabledCondition = new ComputedProperty<>(Boolean.class, condition);
+            enabledConditionRegistration = enabledCondition.addDependent(dependency -> onEnabledConditionChange());
+        }
+        fireEnabledChange(enabledBefore);
+    }
+
+    private void onEnabledConditionChange() {
+        fireEnabledChange(enabled && Boolean.TRUE.equals(enabledCondition.getCachedValue()));
     }
 
     @Override
     public void setEnabled(boolean enabled) {
         if (this.enabled != enabled) {
+            boolean enabledBefore = isEnabled();
             this.enabled = enabled;
-            new LinkedList<>(enabledChangeListeners).forEach(l -> l.onEnabledChange(this));
+            fireEnabledChange(enabledBefore);
         }
     }
 
-    @Override
-    public void addEnabledChangeListener(EnabledChangeListener listener) {
-        if (listener != null) {
-            enabledChangeListeners.add(listener);
+    /**
+     * Notifies all enabled change listeners. Subclasses whose {@link #isEnabled()} depends on additional state should
+     * call this method whenever that state changes.
+     */
+    protected final void fireEnabledChange() {
+        fireEnabledChange(!isEnabled());
+    }
+
+    private void fireEnabledChange(boolean enabledBefore) {
+        if (!PropertyBatch.deferEnabledChange(this, enabledBefore)) {
+            notifyEnabledChangeListeners();
         }
     }
 
+    void notifyEnabledChangeListeners() {
+        enabledChangeListeners.fire(EnabledChangeListener::onEnabledChange, this);
+    }
+
+    @Override
+    public Registration addEnabledChangeListener(EnabledChangeListener listener) {
+        return listener == null ? Registration.NONE : enabledChangeListeners.add(listener);
+    }
+
+    @Override
+    public Registration addWeakEnabledChangeListener(EnabledChangeListener listener) {
+        return listener == null ? Registration.NONE : enabledChangeListeners.addWeak(listener);
+    }
+
     @Override
     public void removeEnabledChangeListener(EnabledChangeListener listener) {
         if (listener != null) {
@@ -89,24 +149,67 @@ public class ApplicationAction implements EnabledChangeNotifier, VisibleChangeNo
         }
     }
 
+    /**
+     * Returns whether the action is visible. An action is visible if it has not been hidden using
+     * {@link #setVisible(boolean)} and its {@link #setVisibleWhen(ComputedProperty.Expression) condition}, if any, is
+     * true.
+     */
     @Override
     public boolean isVisible() {
-        return visible;
+        return visible && (visibleCondition == null || Boolean.TRUE.equals(visibleCondition.getValue()));
     }
 
     @Override
     public void setVisible(boolean visible) {
         if (this.visible != visible) {
+            boolean visibleBefore = isVisible();
             this.visible = visible;
-            new LinkedList<>(visibleChangeListeners).forEach(l -> l.onVisibleChanged(this));
+            fireVisibleChange(visibleBefore);
         }
     }
 
-    @Override
-    public void addVisibleChangeListener(VisibleChangeListener listener) {
-        if (listener != null) {
-            visibleChangeListeners.add(listener);
+    /**
+     * Makes the action visible only when the specified condition is true, in addition to the
+     * {@link #setVisible(boolean) visible flag}. The condition is evaluated lazily and its dependencies are tracked
+     * automatically, just like with {@link #setEnabledWhen(ComputedProperty.Expression)}.
+     *
+     * @param condition the condition, or {@code null} to remove the current condition.
+     */
+    public void setVisibleWhen(ComputedProperty.Expression<Boolean> condition) {
+        boolean visibleBefore = isVisible();
+        visibleConditionRegistration.remove();
+        if (condition == null) {
+            visibleCondition = null;
+            visibleConditionRegistration = Registration.NONE;
+        } else {
+            visibleCondition = new ComputedProperty<>(Boolean.class, condition);
+            visibleConditionRegistration = visibleCondition.addDependent(dependency -> onVisibleConditionChange());
         }
+        fireVisibleChange(visibleBefore);
+    }
+
+    private void onVisibleConditionChange() {
+        fireVisibleChange(visible && Boolean.TRUE.equals(visibleCondition.getCachedValue()));
+    }
+
+    private void fireVisibleChange(boolean visibleBefore) {
+        if (!PropertyBatch.deferVisibleChange(this, visibleBefore)) {
+            notifyVisibleChangeListeners();
+        }
+    }
+
+    void notifyVisibleChangeListeners() {
+        visibleChangeListeners.fire(VisibleChangeListener::onVisibleChanged, this);
+    }
+
+    @Override
+    public Registration addVisibleChangeListener(VisibleChangeListener listener) {
+        return listener == null ? Registration.NONE : visibleChangeListeners.add(listener);
+    }
+
+    @Override
+    public Registration addWeakVisibleChangeListener(VisibleChangeListener listener) {
+        return listener == null ? Registration.NONE : visibleChangeListeners.addWeak(listener);
     }
 
     @Override
@@ -121,9 +224,10 @@ public class ApplicationAction implements EnabledChangeNotifier, VisibleChangeNo
      * 
      * @see MenuItemBinding
      * @param menuItem the menu item.
+     * @return a registration for unbinding the action (never {@code null}).
      */
-    public void bind(MenuBar.MenuItem menuItem) {
-        bind(new MenuItemBinding<>(this, menuItem));
+    public Registration bind(MenuBar.MenuItem menuItem) {
+        return bind(new MenuItemBinding<>(this, menuItem));
     }
 
     /**
@@ -131,9 +235,10 @@ public class ApplicationAction implements EnabledChangeNotifier, VisibleChangeNo
      * 
      * @see ButtonBinding
      * @param button the button.
+     * @return a registration for unbinding the action (never {@code null}).
      */
-    public void bind(Button button) {
-        bind(new ButtonBinding<>(this, button));
+    public Registration bind(Button button) {
+        return bind(new ButtonBinding<>(this, button));
     }
 
     /**
@@ -141,22 +246,24 @@ public class ApplicationAction implements EnabledChangeNotifier, VisibleChangeNo
      *
      * @see ComponentBinding
      * @param component the component.
+     * @return a registration for unbinding the action (never {@code null}).
      */
-    public void bind(Component component) {
-        bind(new ComponentBinding<>(this, component));
+    public Registration bind(Component component) {
+        return bind(new ComponentBinding<>(this, component));
     }
 
     /**
      * Registers the specified {@code binding} with this action.
      * 
      * @param binding the binding to use.
+     * @return a registration for removing the binding (never {@code null}).
      */
-    protected final <VIEW> void bind(Binding<ApplicationAction, VIEW> binding) {
+    protected final <VIEW> Registration bind(Binding<ApplicationAction, VIEW> binding) {
         Objects.requireNonNull(binding, "binding must not be null");
         if (binding.getModel() != this) {
             throw new IllegalArgumentException("Binding must be bound to this ApplicationAction");
         }
-        bindings.bind(binding);
+        return bindings.bind(binding);
     }
 
     /**
@@ -168,6 +275,15 @@ public class ApplicationAction implements EnabledChangeNotifier, VisibleChangeNo
         bindings.unbind(view);
     }
 
+    /**
+     * Unbinds this action from all views it has been bound to.
+     *
+     * @see ApplicationModel#dispose()
+     */
+    public final void unbindAll() {
+        bindings.unbindAll();
+    }
+
     /**
      * Functional interface for an action worker that makes it possible to implement {@link ApplicationAction}s using
      * lambdas.
@@ -1,10 +1,20 @@
 package org.vaadin.am4v.framework.model;
 
 import java.io.Serializable;
-import java.util.HashSet;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.vaadin.am4v.framework.Registration;
 
 /**
  * Base class for application models. An application model is an abstraction of a part of the UI. The model exposes
@@ -16,7 +26,10 @@ import java.util.Set;
  * broadcast messages} to all the other models. If a model is interested in a particular message, it can
  * {@link #registerMessageHandler(Class, MessageHandler)} register a message handler for it. This makes it possible for
  * models to communicate with each other in a decoupled way. It is also valid for application models to invoke each
- * other directly when/if that feels simpler than using message passing.
+ * other directly when/if that feels simpler than using message passing. Messages whose class is annotated with
+ * {@link StickyMessage} are remembered by the hierarchy and passed to handlers that are registered later.
+ * <p>
+ * A parent model keeps track of its children, so {@link #dispose() disposing} a model tears down its whole subtree.
  * <p>
  * The model contains strategies for invoking different Vaadin services such as {@link PushStrategy server push}. By
  * using the strategy pattern, alternative implementations can be plugged in during testing. If a model hierarchy is
@@ -24,12 +37,63 @@ import java.util.Set;
  */
 public abstract class ApplicationModel implements Serializable {
 
+    private static final Object NO_KEY = new Object();
+    private static final ClassValue<Boolean> STICKY = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.isAnnotationPresent(StickyMessage.class);
+        }
+    };
+    private static final ClassValue<Boolean> OVERRIDES_ADAPT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != ApplicationModel.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("adapt", Class.class);
+                    return true;
+                } catch (NoSuchMethodException ex) {
+                    // Keep looking
+                }
+            }
+            return false;
+        }
+    };
+    private static final ClassValue<Field[]> BINDABLE_FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != ApplicationModel.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (ApplicationProperty.class.isAssignableFrom(field.getType())
+                        || ApplicationAction.class.isAssignableFrom(field.getType())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[fields.size()]);
+        }
+    };
+
     private ApplicationModel parent;
+    private HierarchyVersion hierarchyVersion;
+    private transient volatile ResolvedState resolvedState;
     private NavigatorStrategy navigatorStrategy;
     private PushStrategy pushStrategy;
     private NotificationStrategy notificationStrategy;
     private WindowStrategy windowStrategy;
-    private final Set<MessageHandlerRegistration> messageHandlers = new HashSet<>();
+    private ExecutionStrategy executionStrategy;
+    private final MessageHandlerRegistry messageHandlers = new MessageHandlerRegistry();
+    private final ListenerArray<ApplicationModel> children = new ListenerArray<>();
+    private final Map<Class<?>, Integer> subtreeSubscriptions = new HashMap<>();
+    private final Map<Object, Map<Class<?>, Integer>> subtreeKeyedSubscriptions = new HashMap<>();
+    private transient Map<Class<?>, Boolean> subtreeInterest;
+    private transient MessageBus messageBus;
+    private transient Object messageBusSessionKey;
+    private transient PushStrategy messageBusPushStrategy;
+    private transient Map<Class<?>, Map<Object, Object>> stickyMessages;
+    private final List<Registration> managedResources = new ArrayList<>();
+    private boolean disposed;
 
     /**
      * Creates a new root model (no parent) with the specified strategies.
@@ -45,10 +109,12 @@ public abstract class ApplicationModel implements Serializable {
      */
     public ApplicationModel(NavigatorStrategy navigatorStrategy, PushStrategy pushStrategy,
         NotificationStrategy notificationStrategy, WindowStrategy windowStrategy) {
+        hierarchyVersion = new HierarchyVersion();
         setNavigatorStrategy(navigatorStrategy);
         setPushStrategy(pushStrategy);
         setNotificationStrategy(notificationStrategy);
         setWindowStrategy(windowStrategy);
+        setExecutionStrategy(null);
         parent = null;
     }
 
@@ -73,7 +139,8 @@ public abstract class ApplicationModel implements Serializable {
      */
     public ApplicationModel(ApplicationModel parent) {
         this.parent = Objects.requireNonNull(parent);
-        parent.registerMessageHandler(Object.class, this::onParentMessage);
+        hierarchyVersion = parent.hierarchyVersion;
+        parent.children.add(this);
     }
 
     /**
@@ -83,15 +150,18 @@ public abstract class ApplicationModel implements Serializable {
      * @see #broadcastMessage(Object)
      * @param messageClass the class of the messages to receive.
      * @param messageHandler the message handler.
+     * @return a registration for unregistering the handler (never {@code null}).
      */
-    protected final <M> void registerMessageHandler(Class<? super M> messageClass, MessageHandler<M> messageHandler) {
+    protected final <M> Registration registerMessageHandler(Class<? super M> messageClass,
+        MessageHandler<M> messageHandler) {
         Objects.requireNonNull(messageClass);
         Objects.requireNonNull(messageHandler);
-        messageHandlers.add(new MessageHandlerRegistration(messageClass, messageHandler));
+        return addRegistration(null, new MessageHandlerRegistration(messageClass, messageHandler));
     }
 
     /**
-     * Unregisters a message handler previously registered using {@link #registerMessageHandler(Class, MessageHandler)}.
+     * Unregisters a message handler previously registered using {@link #registerMessageHandler(Class, MessageHandler)}
+     * or {@link #registerCoalescingMessageHandler(Class, MessageKeyExtractor, MessageHandler)}.
      * 
      * @param messageClass the class of the messages to receive.
      * @param messageHandler the message handler.
@@ -99,7 +169,128 @@ public abstract class ApplicationModel implements Serializable {
     protected final <M> void unregisterMessageHandler(Class<? super M> messageClass, MessageHandler<M> messageHandler) {
         Objects.requireNonNull(messageClass);
         Objects.requireNonNull(messageHandler);
-        messageHandlers.remove(new MessageHandlerRegistration(messageClass, messageHandler));
+        removeRegistration(null, new MessageHandlerRegistration(messageClass, messageHandler));
+    }
+
+    /**
+     * Registers a new message handler for a particular key (topic), such as the identifier of an entity. The handler
+     * will receive all messages of the specified message class that have been broadcast with an equal key using
+     * {@link #broadcastKeyedMessage(Object, Object)}, regardless of where in the model hierarchy they have been
+     * broadcast. Messages with other keys or without a key are never passed to the handler, and models whose
+     * subtrees have no handlers for the key are skipped altogether when routing the message.
+     * <p>
+     * Handlers registered without a key receive both keyed and non-keyed messages.
+     *
+     * @see #unregisterMessageHandler(Class, Object, MessageHandler)
+     * @param messageClass the class of the messages to receive.
+     * @param key the key of the messages to receive.
+     * @param messageHandler the message handler.
+     * @return a registration for unregistering the handler (never {@code null}).
+     */
+    protected final <M> Registration registerMessageHandler(Class<? super M> messageClass, Object key,
+        MessageHandler<M> messageHandler) {
+        Objects.requireNonNull(messageClass);
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(messageHandler);
+        return addRegistration(key, new MessageHandlerRegistration(messageClass, messageHandler));
+    }
+
+    /**
+     * Unregisters a message handler previously registered using
+     * {@link #registerMessageHandler(Class, Object, MessageHandler)}.
+     *
+     * @param messageClass the class of the messages to receive.
+     * @param key the key of the messages to receive.
+     * @param messageHandler the message handler.
+     */
+    protected final <M> void unregisterMessageHandler(Class<? super M> messageClass, Object key,
+        MessageHandler<M> messageHandler) {
+        Objects.requireNonNull(messageClass);
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(messageHandler);
+        removeRegistration(key, new MessageHandlerRegistration(messageClass, messageHandler));
+    }
+
+    /**
+     * Registers a new coalescing message handler. The handler will receive messages of the specified message class
+     * just like an ordinary handler, except that messages broadcast while an {@link ApplicationAction} is running or
+     * as part of {@link #broadcastMessages(Iterable)} are held back and merged: messages with the same key replace each
+     * other and the handler receives only the latest message per key, once the outermost action or batch has
+     * completed. Messages broadcast outside of an action or batch are delivered using the {@link #getPushStrategy()
+     * push strategy} of this model, which for the default strategy means at the end of the current UI access. This is
+     * useful for handlers that react to messages by doing expensive, idempotent work.
+     *
+     * @see #registerCoalescingMessageHandler(Class, MessageHandler)
+     * @see #unregisterMessageHandler(Class, MessageHandler)
+     * @param messageClass the class of the messages to receive.
+     * @param keyExtractor the function that returns the key of a message. Messages with equal keys are merged.
+     * @param messageHandler the message handler.
+     * @return a registration for unregistering the handler (never {@code null}).
+     */
+    protected final <M> Registration registerCoalescingMessageHandler(Class<? super M> messageClass,
+        MessageKeyExtractor<M> keyExtractor, MessageHandler<M> messageHandler) {
+        Objects.requireNonNull(messageClass);
+        Objects.requireNonNull(keyExtractor);
+        Objects.requireNonNull(messageHandler);
+        return addRegistration(null,
+            new CoalescingMessageHandlerRegistration(messageClass, messageHandler, this, keyExtractor));
+    }
+
+    /**
+     * Registers a new coalescing message handler that merges all messages of the specified message class, i.e. it
+     * receives at most one message (the latest) per action or batch.
+     *
+     * @see #registerCoalescingMessageHandler(Class, MessageKeyExtractor, MessageHandler)
+     * @param messageClass the class of the messages to receive.
+     * @param messageHandler the message handler.
+     * @return a registration for unregistering the handler (never {@code null}).
+     */
+    protected final <M> Registration registerCoalescingMessageHandler(Class<? super M> messageClass,
+        MessageHandler<M> messageHandler) {
+        Objects.requireNonNull(messageClass);
+        Objects.requireNonNull(messageHandler);
+        return addRegistration(null,
+            new CoalescingMessageHandlerRegistration(messageClass, messageHandler, this, null));
+    }
+
+    /**
+     * Registers a new asynchronous message handler. The handler will receive all messages of the specified message
+     * class, regardless of where in the model hierarchy they have been broadcast, but instead of being invoked by the
+     * thread that broadcast the message, it is invoked by the executor of the specified {@code delivery}. The messages
+     * are delivered to the handler one at a time in the order they were broadcast. Any UI job returned by the handler
+     * is executed using the {@link #getPushStrategy() push strategy} of this model. The push strategy is resolved and
+     * {@link PushStrategy#bindToCurrentUI() bound} when the handler is registered, so the default strategy pushes to
+     * the UI that was current at that time.
+     *
+     * @see #broadcastMessage(Object)
+     * @see #unregisterAsyncMessageHandler(Class, AsyncMessageHandler)
+     * @param messageClass the class of the messages to receive.
+     * @param messageHandler the message handler.
+     * @param delivery the configuration of the executor and the queue of pending messages.
+     * @return a registration for unregistering the handler (never {@code null}).
+     * @throws IllegalStateException if this model uses the default push strategy and there is no current UI.
+     */
+    protected final <M> Registration registerAsyncMessageHandler(Class<? super M> messageClass,
+        AsyncMessageHandler<M> messageHandler, AsyncDelivery delivery) {
+        Objects.requireNonNull(messageClass);
+        Objects.requireNonNull(messageHandler);
+        Objects.requireNonNull(delivery);
+        return addRegistration(null, new AsyncMessageHandlerRegistration(messageClass, messageHandler, this, delivery));
+    }
+
+    /**
+     * Unregisters a message handler previously registered using
+     * {@link #registerAsyncMessageHandler(Class, AsyncMessageHandler, AsyncDelivery)}. Messages that are already
+     * pending will still be delivered to the handler.
+     *
+     * @param messageClass the class of the messages to receive.
+     * @param messageHandler the message handler.
+     */
+    protected final <M> void unregisterAsyncMessageHandler(Class<? super M> messageClass,
+        AsyncMessageHandler<M> messageHandler) {
+        Objects.requireNonNull(messageClass);
+        Objects.requireNonNull(messageHandler);
+        removeRegistration(null, new AsyncMessageHandlerRegistration(messageClass, messageHandler, null, null));
     }
 
     /**
@@ -110,28 +301,347 @@ public abstract class ApplicationModel implements Serializable {
      */
     protected final void broadcastMessage(Object message) {
         Objects.requireNonNull(message);
-        forwardMessage(ApplicationModel.this, message);
+        forwardMessage(ApplicationModel.this, message, null);
+    }
+
+    /**
+     * Broadcasts the given message to the specified scope. The message is always delivered to all models in the model
+     * hierarchy of this model, including this model, in the same way as {@link #broadcastMessage(Object)}. For the
+     * wider scopes, the root model of the hierarchy must have {@link #joinMessageBus(MessageBus, Object) joined a
+     * message bus}, which delivers the message to the other hierarchies in the scope through the
+     * {@link #getPushStrategy() push strategies} of their root models. In those hierarchies, the root model will
+     * appear as the source of the message.
+     *
+     * @see BroadcastScope
+     * @param message the message to broadcast.
+     * @param scope the scope to broadcast the message to.
+     * @throws IllegalStateException if the scope is wider than {@link BroadcastScope#HIERARCHY} and the hierarchy has
+     *         not joined a message bus.
+     */
+    protected final void broadcastMessage(Object message, BroadcastScope scope) {
+        Objects.requireNonNull(message);
+        Objects.requireNonNull(scope);
+        broadcast(message, null, scope);
+    }
+
+    /**
+     * Broadcasts the given message with a key to all models in the model hierarchy, including this model. The message
+     * is passed to the handlers that have subscribed to the key and to the handlers that have been registered without
+     * a key.
+     *
+     * @see #registerMessageHandler(Class, Object, MessageHandler)
+     * @param message the message to broadcast.
+     * @param key the key of the message, such as the identifier of the entity that the message concerns.
+     */
+    protected final void broadcastKeyedMessage(Object message, Object key) {
+        Objects.requireNonNull(message);
+        Objects.requireNonNull(key);
+        forwardMessage(ApplicationModel.this, message, key);
+    }
+
+    /**
+     * Broadcasts the given message with a key to the specified scope.
+     *
+     * @see #broadcastKeyedMessage(Object, Object)
+     * @see #broadcastMessage(Object, BroadcastScope)
+     * @param message the message to broadcast.
+     * @param key the key of the message, such as the identifier of the entity that the message concerns.
+     * @param scope the scope to broadcast the message to.
+     * @throws IllegalStateException if the scope is wider than {@link BroadcastScope#HIERARCHY} and the hierarchy has
+     *         not joined a message bus.
+     */
+    protected final void broadcastKeyedMessage(Object message, Object key, BroadcastScope scope) {
+        Objects.requireNonNull(message);
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(scope);
+        broadcast(message, key, scope);
+    }
+
+    private void broadcast(Object message, Object key, BroadcastScope scope) {
+        if (scope == BroadcastScope.HIERARCHY) {
+            forwardMessage(this, message, key);
+            return;
+        }
+        ApplicationModel root = getRoot();
+        MessageBus bus = root.messageBus;
+        if (bus == null) {
+            throw new IllegalStateException("The model hierarchy has not joined a MessageBus");
+        }
+        forwardMessage(this, message, key);
+        bus.publish(scope, root.messageBusSessionKey, root, key, message);
+    }
+
+    /**
+     * Joins the specified message bus, making it possible to send and receive messages with scopes wider than
+     * {@link BroadcastScope#HIERARCHY}. Only root models can join a message bus and a model can only be a member of one
+     * bus at a time. Remember to {@link #leaveMessageBus() leave} the bus when the hierarchy is no longer in use (e.g.
+     * when the UI is detached), as the bus will otherwise keep it from being garbage collected. Bus memberships are not
+     * serialized together with the model.
+     * <p>
+     * Messages from the bus are delivered through the {@link #getPushStrategy() push strategy} of this model, which is
+     * {@link PushStrategy#bindToCurrentUI() bound} to the current UI when joining, since the messages arrive from other
+     * threads. Changing the push strategy afterwards does not affect the delivery of bus messages.
+     *
+     * @param messageBus the message bus to join.
+     * @param sessionKey the key identifying the session of the hierarchy, typically the
+     *        {@link com.vaadin.server.VaadinSession}.
+     * @throws IllegalStateException if this model has a parent or has already joined a bus, or if it uses the default
+     *         push strategy and there is no current UI.
+     */
+    public final void joinMessageBus(MessageBus messageBus, Object sessionKey) {
+        Objects.requireNonNull(messageBus);
+        Objects.requireNonNull(sessionKey);
+        if (parent != null) {
+            throw new IllegalStateException("Only root models can join a MessageBus");
+        }
+        if (this.messageBus != null) {
+            throw new IllegalStateException("The model has already joined a MessageBus");
+        }
+        this.messageBusPushStrategy = getPushStrategy().bindToCurrentUI();
+        this.messageBus = messageBus;
+        this.messageBusSessionKey = sessionKey;
+        messageBus.join(sessionKey, this);
+    }
+
+    /**
+     * Leaves the message bus previously joined using {@link #joinMessageBus(MessageBus, Object)}. If the model is not
+     * a member of any bus, nothing happens.
+     */
+    public final void leaveMessageBus() {
+        if (messageBus != null) {
+            messageBus.leave(messageBusSessionKey, this);
+            messageBus = null;
+            messageBusSessionKey = null;
+            messageBusPushStrategy = null;
+        }
+    }
+
+    /**
+     * Returns the push strategy through which messages from the message bus are delivered.
+     *
+     * @return the push strategy bound when the bus was joined, or {@code null} if this model is not a member of a bus.
+     */
+    PushStrategy getMessageBusPushStrategy() {
+        return messageBusPushStrategy;
+    }
+
+    /**
+     * Called by the {@link MessageBus} to deliver a message broadcast by another hierarchy to this hierarchy.
+     *
+     * @param key the key of the message, or {@code null} if it has no key.
+     * @param message the message.
+     */
+    final void receiveBusMessage(Object key, Object message) {
+        cacheStickyMessage(message, key);
+        deliverToSubtree(this, message, message.getClass(), key, null);
+    }
+
+    /**
+     * Broadcasts the given messages to all models in the model hierarchy, including this model, as a single batch.
+     * Coalescing message handlers will receive the merged messages once the whole batch has been broadcast.
+     *
+     * @see #broadcastMessage(Object)
+     * @see #registerCoalescingMessageHandler(Class, MessageKeyExtractor, MessageHandler)
+     * @param messages the messages to broadcast.
+     */
+    protected final void broadcastMessages(Iterable<?> messages) {
+        Objects.requireNonNull(messages);
+        MessageCoalescingScope.run(() -> {
+            for (Object message : messages) {
+                broadcastMessage(message);
+            }
+        });
+    }
+
+    /**
+     * Forgets the sticky messages of the specified class (and its subclasses) that have been broadcast in the model
+     * hierarchy, so that they are no longer passed to new handlers. This is useful when the state described by the
+     * messages is no longer valid.
+     *
+     * @see StickyMessage
+     * @param messageClass the class of the messages to forget.
+     */
+    protected final void clearStickyMessages(Class<?> messageClass) {
+        Objects.requireNonNull(messageClass);
+        ApplicationModel root = getRoot();
+        if (root.stickyMessages != null) {
+            root.stickyMessages.keySet().removeIf(messageClass::isAssignableFrom);
+        }
+    }
+
+    private ApplicationModel getRoot() {
+        ApplicationModel root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        return root;
+    }
+
+    private void cacheStickyMessage(Object message, Object key) {
+        if (STICKY.get(message.getClass())) {
+            ApplicationModel root = getRoot();
+            if (root.stickyMessages == null) {
+                root.stickyMessages = new LinkedHashMap<>();
+            }
+            root.stickyMessages.computeIfAbsent(message.getClass(), c -> new LinkedHashMap<>())
+                .put(key == null ? NO_KEY : key, message);
+        }
+    }
+
+    private void replayStickyMessages(Object key, MessageHandlerRegistration registration) {
+        ApplicationModel root = getRoot();
+        if (root.stickyMessages == null) {
+            return;
+        }
+        // Copy the messages, since the handlers may broadcast new sticky messages
+        for (Map.Entry<Class<?>, Map<Object, Object>> entry : new ArrayList<>(root.stickyMessages.entrySet())) {
+            if (registration.supports(entry.getKey())) {
+                if (key == null) {
+                    for (Object message : new ArrayList<>(entry.getValue().values())) {
+                        registration.handleMessage(root, message);
+                    }
+                } else {
+                    Object message = entry.getValue().get(key);
+                    if (message != null) {
+                        registration.handleMessage(root, message);
+                    }
+                }
+            }
+        }
+    }
+
+    private Registration addRegistration(Object key, MessageHandlerRegistration registration) {
+        if (key == null ? messageHandlers.add(registration) : messageHandlers.add(key, registration)) {
+            for (ApplicationModel m = this; m != null; m = m.parent) {
+                m.updateSubtreeSubscriptions(registration.getMessageClass(), key, 1);
+            }
+            replayStickyMessages(key, registration);
+        }
+        return () -> removeRegistration(key, registration);
+    }
+
+    private void removeRegistration(Object key, MessageHandlerRegistration registration) {
+        if (key == null ? messageHandlers.remove(registration) : messageHandlers.remove(key, registration)) {
+            for (ApplicationModel m = this; m != null; m = m.parent) {
+                m.updateSubtreeSubscriptions(registration.getMessageClass(), key, -1);
+            }
+        }
+    }
+
+    private void updateSubtreeSubscriptions(Class<?> messageClass, Object key, int delta) {
+        if (key == null) {
+            if (updateCount(subtreeSubscriptions, messageClass, delta)) {
+                subtreeInterest = null;
+            }
+        } else {
+            Map<Class<?>, Integer> keyedSubscriptions = subtreeKeyedSubscriptions.computeIfAbsent(key,
+                k -> new HashMap<>());
+            updateCount(keyedSubscriptions, messageClass, delta);
+            if (keyedSubscriptions.isEmpty()) {
+                subtreeKeyedSubscriptions.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the count of {@code messageClass}, removing the class when the count drops to zero.
+     *
+     * @return true if the set of classes changed, false if only the count changed.
+     */
+    private static boolean updateCount(Map<Class<?>, Integer> counts, Class<?> messageClass, int delta) {
+        int count = counts.getOrDefault(messageClass, 0) + delta;
+        if (count <= 0) {
+            return counts.remove(messageClass) != null;
+        } else {
+            return counts.put(messageClass, count) == null;
+        }
+    }
+
+    /**
+     * Checks whether this model or any of its descendants has a handler for messages of the specified class and key.
+     * For messages without a key, the result is cached until the set of subscribed message classes in the subtree
+     * changes. Keyed subscriptions are looked up by key, so only the (typically very few) classes subscribed to that
+     * particular key need to be checked.
+     */
+    private boolean isSubtreeInterestedIn(Class<?> messageClass, Object key) {
+        if (isSubtreeInterestedIn(messageClass)) {
+            return true;
+        }
+        if (key != null) {
+            Map<Class<?>, Integer> keyedSubscriptions = subtreeKeyedSubscriptions.get(key);
+            if (keyedSubscriptions != null) {
+                for (Class<?> subscribedClass : keyedSubscriptions.keySet()) {
+                    if (subscribedClass.isAssignableFrom(messageClass)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
     }
 
-    private void forwardMessage(ApplicationModel source, Object message) {
+    private boolean isSubtreeInterestedIn(Class<?> messageClass) {
+        if (subtreeSubscriptions.isEmpty()) {
+            return false;
+        }
+        if (subtreeInterest == null) {
+            subtreeInterest = new HashMap<>();
+        }
+        Boolean interested = subtreeInterest.get(messageClass);
+        if (interested == null) {
+            interested = Boolean.FALSE;
+            for (Class<?> subscribedClass : subtreeSubscriptions.keySet()) {
+                if (subscribedClass.isAssignableFrom(messageClass)) {
+                    interested = Boolean.TRUE;
+                    break;
+                }
+            }
+            subtreeInterest.put(messageClass, interested);
+        }
+        return interested;
+    }
+
+    /**
+     * Delivers the message to this model and then walks up the hierarchy. At each ancestor, the message is delivered
+     * to the ancestor itself and to the subtrees of its other children, skipping subtrees that have no interested
+     * handlers.
+     */
+    private void forwardMessage(ApplicationModel source, Object message, Object key) {
+        Class<?> messageClass = message.getClass();
+        cacheStickyMessage(message, key);
         // Store the parent in case any of the message handlers detaches the model from its parent.
         // The message should still reach all models in the hierarchy.
         ApplicationModel p = parent;
-        notifyMessageHandlers(source, message);
-        if (p != null) {
-            p.forwardMessage(source, message);
+        deliverToSubtree(source, message, messageClass, key, null);
+        ApplicationModel previous = this;
+        while (p != null) {
+            ApplicationModel next = p.parent;
+            p.deliverToSubtree(source, message, messageClass, key, previous);
+            previous = p;
+            p = next;
         }
     }
 
-    private void onParentMessage(ApplicationModel source, Object message) {
-        if (source != this) {
-            notifyMessageHandlers(source, message);
+    private void deliverToSubtree(ApplicationModel source, Object message, Class<?> messageClass, Object key,
+        ApplicationModel excludedChild) {
+        notifyMessageHandlers(source, message, messageClass, key);
+        for (Object child : children.toArray()) {
+            if (child != excludedChild && ((ApplicationModel) child).isSubtreeInterestedIn(messageClass, key)) {
+                ((ApplicationModel) child).deliverToSubtree(source, message, messageClass, key, null);
+            }
         }
     }
 
-    private void notifyMessageHandlers(ApplicationModel source, Object message) {
-        new HashSet<>(messageHandlers).stream().filter(h -> h.supports(message))
-            .forEach(h -> h.handleMessage(source, message));
+    private void notifyMessageHandlers(ApplicationModel source, Object message, Class<?> messageClass, Object key) {
+        // The handler arrays are snapshots, so handlers may (un)register other handlers while we iterate.
+        for (MessageHandlerRegistration handler : messageHandlers.getHandlers(messageClass)) {
+            handler.handleMessage(source, message);
+        }
+        if (key != null) {
+            for (MessageHandlerRegistration handler : messageHandlers.getHandlers(messageClass, key)) {
+                handler.handleMessage(source, message);
+            }
+        }
     }
 
     /**
@@ -141,10 +651,7 @@ public abstract class ApplicationModel implements Serializable {
      * @return the navigator strategy (never {@code null}).
      */
     public final NavigatorStrategy getNavigatorStrategy() {
-        if (navigatorStrategy == null && parent != null) {
-            return parent.getNavigatorStrategy();
-        }
-        return navigatorStrategy;
+        return navigatorStrategy == null ? getResolvedState().navigatorStrategy : navigatorStrategy;
     }
 
     /**
@@ -160,6 +667,7 @@ public abstract class ApplicationModel implements Serializable {
         } else {
             this.navigatorStrategy = navigatorStrategy == null ? NavigatorStrategy.getDefault() : navigatorStrategy;
         }
+        hierarchyVersion.increment();
     }
 
     /**
@@ -169,10 +677,7 @@ public abstract class ApplicationModel implements Serializable {
      * @return the window strategy (never {@code null}).
      */
     public final WindowStrategy getWindowStrategy() {
-        if (windowStrategy == null && parent != null) {
-            return parent.getWindowStrategy();
-        }
-        return windowStrategy;
+        return windowStrategy == null ? getResolvedState().windowStrategy : windowStrategy;
     }
 
     /**
@@ -188,6 +693,7 @@ public abstract class ApplicationModel implements Serializable {
         } else {
             this.windowStrategy = windowStrategy == null ? WindowStrategy.getDefault() : windowStrategy;
         }
+        hierarchyVersion.increment();
     }
 
     /**
@@ -197,10 +703,7 @@ public abstract class ApplicationModel implements Serializable {
      * @return the push strategy (never {@code null}).
      */
     public final PushStrategy getPushStrategy() {
-        if (pushStrategy == null && parent != null) {
-            return parent.getPushStrategy();
-        }
-        return pushStrategy;
+        return pushStrategy == null ? getResolvedState().pushStrategy : pushStrategy;
     }
 
     /**
@@ -216,6 +719,7 @@ public abstract class ApplicationModel implements Serializable {
         } else {
             this.pushStrategy = pushStrategy == null ? PushStrategy.getDefault() : pushStrategy;
         }
+        hierarchyVersion.increment();
     }
 
     /**
@@ -226,10 +730,7 @@ public abstract class ApplicationModel implements Serializable {
      * @return the notification strategy (never {@code null}).
      */
     public final NotificationStrategy getNotificationStrategy() {
-        if (notificationStrategy == null && parent != null) {
-            return parent.getNotificationStrategy();
-        }
-        return notificationStrategy;
+        return notificationStrategy == null ? getResolvedState().notificationStrategy : notificationStrategy;
     }
 
     /**
@@ -246,6 +747,115 @@ public abstract class ApplicationModel implements Serializable {
             this.notificationStrategy = notificationStrategy == null ? NotificationStrategy.getDefault()
                 : notificationStrategy;
         }
+        hierarchyVersion.increment();
+    }
+
+    /**
+     * Returns the {@link ExecutionStrategy} to use for background work. If this model has a parent and no strategy has
+     * been explicitly set, the strategy of the parent is returned.
+     *
+     * @see #executeInBackground(Supplier, Consumer, Consumer)
+     * @return the execution strategy (never {@code null}).
+     */
+    public final ExecutionStrategy getExecutionStrategy() {
+        return executionStrategy == null ? getResolvedState().executionStrategy : executionStrategy;
+    }
+
+    /**
+     * Sets the execution strategy to use for background work.
+     *
+     * @see #getExecutionStrategy()
+     * @param executionStrategy the execution strategy or {@code null} to use the
+     *        {@link ExecutionStrategy#getDefault() default} or inherit from the parent model.
+     */
+    public final void setExecutionStrategy(ExecutionStrategy executionStrategy) {
+        if (parent != null) {
+            this.executionStrategy = executionStrategy;
+        } else {
+            this.executionStrategy = executionStrategy == null ? ExecutionStrategy.getDefault() : executionStrategy;
+        }
+        hierarchyVersion.increment();
+    }
+
+    /**
+     * Runs the given updates as a batch. The value change, enabled change and visible change notifications of all the
+     * {@link ApplicationProperty properties} and {@link ApplicationAction actions} updated by the batch are held back
+     * until the batch completes. Then, every listener is notified once per property or action and kind of change, so
+     * that the UI is updated in one go to the final state instead of through a series of partial states. Batches can
+     * be nested, in which case the notifications are delivered when the outermost batch completes.
+     * <p>
+     * Batches are bound to the current thread, so all the updates must be made by the thread that runs the batch.
+     *
+     * @param updates the updates to run.
+     */
+    protected final void batch(Runnable updates) {
+        PropertyBatch.run(Objects.requireNonNull(updates, "updates must not be null"));
+    }
+
+    /**
+     * Sets the value of the specified property even if it is read-only. This is intended for models that expose
+     * read-only properties to the views but need to update them internally. The read-only flag itself is never
+     * changed, so no read-only status change events are fired.
+     *
+     * @param property the property to update.
+     * @param value the new value.
+     */
+    protected final <T> void setValue(ApplicationProperty<T> property, T value) {
+        Objects.requireNonNull(property, "property must not be null").setTrustedValue(value);
+    }
+
+    /**
+     * Runs the given task in the background using the {@link #getExecutionStrategy() execution strategy} and passes
+     * the result to {@code resultHandler} using the {@link #getPushStrategy() push strategy}, i.e. with the session
+     * locked. If the task fails, the exception is passed to {@code errorHandler} in the same way. If this model has
+     * been {@link #dispose() disposed} by the time the task completes, neither handler is invoked.
+     *
+     * @param task the task to run in the background.
+     * @param resultHandler the handler to receive the result.
+     * @param errorHandler the handler to receive any exception thrown by the task.
+     * @throws IllegalStateException if the model uses the default push strategy and there is no current UI.
+     */
+    protected final <T> void executeInBackground(Supplier<T> task, Consumer<? super T> resultHandler,
+        Consumer<? super Throwable> errorHandler) {
+        Objects.requireNonNull(task);
+        Objects.requireNonNull(resultHandler);
+        Objects.requireNonNull(errorHandler);
+        // Bind the push strategy now, since the default strategy relies on the current UI
+        PushStrategy pushStrategy = getPushStrategy().bindToCurrentUI();
+        getExecutionStrategy().execute(() -> {
+            Runnable job;
+            try {
+                T result = task.get();
+                job = () -> resultHandler.accept(result);
+            } catch (Throwable ex) {
+                job = () -> errorHandler.accept(ex);
+            }
+            Runnable handlerJob = job;
+            pushStrategy.execute(() -> {
+                if (!disposed) {
+                    handlerJob.run();
+                }
+            });
+        });
+    }
+
+    /**
+     * Runs the given task in the background and passes the result to {@code resultHandler}. Any exception thrown by
+     * the task is rethrown inside the push job, where it ends up in the error handling of the UI.
+     *
+     * @see #executeInBackground(Supplier, Consumer, Consumer)
+     * @param task the task to run in the background.
+     * @param resultHandler the handler to receive the result.
+     */
+    protected final <T> void executeInBackground(Supplier<T> task, Consumer<? super T> resultHandler) {
+        executeInBackground(task, resultHandler, ex -> {
+            if (ex instanceof RuntimeException) {
+                throw (RuntimeException) ex;
+            } else if (ex instanceof Error) {
+                throw (Error) ex;
+            }
+            throw new IllegalStateException("Background task failed", ex);
+        });
     }
 
     /**
@@ -268,21 +878,56 @@ public abstract class ApplicationModel implements Serializable {
      * <p>
      * Subclasses may override if they wish to support other means of adapting to a class than implementing an
      * interface or extending a base class.
+     * <p>
+     * The results from the ancestors are cached (just like the inherited strategies) until a strategy is changed or a
+     * model is detached somewhere in the hierarchy. Results are never cached if an ancestor overrides this method.
      * 
      * @param clazz the class to adapt to.
      * @return the closest model in the hierarchy that supported the adapter.
      */
+    @SuppressWarnings("unchecked")
     protected <A> Optional<A> adapt(Class<A> clazz) {
         Objects.requireNonNull(clazz);
         if (clazz.isInstance(this)) {
             return Optional.of(clazz.cast(this));
         } else if (parent != null) {
-            return parent.adapt(clazz);
+            ResolvedState state = getResolvedState();
+            if (state.adapters == null) {
+                return parent.adapt(clazz);
+            }
+            return (Optional<A>) state.adapters.computeIfAbsent(clazz, c -> parent.adapt(c));
         } else {
             return Optional.empty();
         }
     }
 
+    /**
+     * Returns the strategies and adapters resolved from the ancestors of this model, resolving them again if any model
+     * in the hierarchy has changed its strategies or has been detached since the last time.
+     */
+    private ResolvedState getResolvedState() {
+        ResolvedState state = resolvedState;
+        HierarchyVersion hierarchy = hierarchyVersion;
+        int version = hierarchy.get();
+        // A detached model starts a new hierarchy whose counter starts over, so the hierarchy must match as well
+        if (state == null || state.hierarchy != hierarchy || state.version != version) {
+            state = new ResolvedState(hierarchy, version, parent);
+            resolvedState = state;
+        }
+        return state;
+    }
+
+    /**
+     * Moves this model and its descendants to a new hierarchy version, invalidating everything they have resolved
+     * from their former ancestors.
+     */
+    private void useNewHierarchyVersion(HierarchyVersion version) {
+        hierarchyVersion = version;
+        for (Object child : children.toArray()) {
+            ((ApplicationModel) child).useNewHierarchyVersion(version);
+        }
+    }
+
     /**
      * Detaches this model from its parent, turning it into a root model. Any services inherited from the parent
      * will be replaced with their defaults. Once a model has been detached, it cannot be re-attached to a parent. This
@@ -290,33 +935,136 @@ public abstract class ApplicationModel implements Serializable {
      * collected at different times).
      * <p>
      * Subclasses that wish to perform additional clean up when the model is detached should override {@link #detach()}.
+     * To also tear down the children of the model, use {@link #dispose()} instead.
      *
      * @see #ApplicationModel(ApplicationModel)
      * @see #getParent()
      */
     public final void detachFromParent() {
         if (parent != null) {
-            parent.unregisterMessageHandler(Object.class, this::onParentMessage);
-            if (notificationStrategy == null) {
-                notificationStrategy = NotificationStrategy.getDefault();
-            }
-            if (pushStrategy == null) {
-                pushStrategy = PushStrategy.getDefault();
-            }
-            if (navigatorStrategy == null) {
-                navigatorStrategy = NavigatorStrategy.getDefault();
-            }
-            if (windowStrategy == null) {
-                windowStrategy = WindowStrategy.getDefault();
+            parent.children.remove(this);
+            for (ApplicationModel m = parent; m != null; m = m.parent) {
+                for (Map.Entry<Class<?>, Integer> subscription : subtreeSubscriptions.entrySet()) {
+                    m.updateSubtreeSubscriptions(subscription.getKey(), null, -subscription.getValue());
+                }
+                for (Map.Entry<Object, Map<Class<?>, Integer>> keyed : subtreeKeyedSubscriptions.entrySet()) {
+                    for (Map.Entry<Class<?>, Integer> subscription : keyed.getValue().entrySet()) {
+                        m.updateSubtreeSubscriptions(subscription.getKey(), keyed.getKey(), -subscription.getValue());
+                    }
+                }
             }
+            useDefaultStrategiesWhereInherited();
             detach();
             parent = null;
+            useNewHierarchyVersion(new HierarchyVersion());
+        }
+    }
+
+    /**
+     * Registers a resource whose lifecycle should be tied to this model, such as a listener registered with a
+     * long-lived object or a timer. The resource will be released when the model is {@link #dispose() disposed}.
+     * Resources are released in the reverse order of registration.
+     *
+     * @param resource the registration that releases the resource.
+     * @return {@code resource}, to make it possible to also release the resource earlier.
+     */
+    protected final Registration manage(Registration resource) {
+        Objects.requireNonNull(resource);
+        if (disposed) {
+            resource.remove();
+        } else {
+            managedResources.add(resource);
+        }
+        return resource;
+    }
+
+    /**
+     * Disposes this model and all its descendants. The model is {@link #detachFromParent() detached} from its parent,
+     * after which the whole subtree is torn down in a single pass, children before their parents. Every model in the
+     * subtree is {@link #detach() detached} from its parent, releases its {@link #manage(Registration) managed
+     * resources}, unbinds the {@link ApplicationProperty properties} and {@link ApplicationAction actions} stored in
+     * its fields from their views, unregisters all its message handlers and leaves its {@link MessageBus}, if any.
+     * Disposing a model that has already been disposed does nothing.
+     */
+    public final void dispose() {
+        if (!disposed) {
+            detachFromParent();
+            disposeSubtree();
+            hierarchyVersion.increment();
         }
     }
 
     /**
-     * Called when the model is being detached from the parent model. At this point, the parent model is still
-     * accessible by {@link #getParent()}. The default implementation does nothing, subclasses may override.
+     * Checks whether this model has been {@link #dispose() disposed}.
+     *
+     * @return true if the model has been disposed, false otherwise.
+     */
+    public final boolean isDisposed() {
+        return disposed;
+    }
+
+    private void disposeSubtree() {
+        for (Object child : children.toArray()) {
+            ((ApplicationModel) child).disposeSubtree();
+        }
+        children.clear();
+        if (parent != null) {
+            // The ancestors are being disposed as well, so there is no need to update their subscriptions
+            useDefaultStrategiesWhereInherited();
+            detach();
+            parent = null;
+        }
+        disposed = true;
+        for (int i = managedResources.size() - 1; i >= 0; --i) {
+            managedResources.get(i).remove();
+        }
+        managedResources.clear();
+        unbindFields();
+        messageHandlers.clear();
+        subtreeSubscriptions.clear();
+        subtreeKeyedSubscriptions.clear();
+        subtreeInterest = null;
+        stickyMessages = null;
+        leaveMessageBus();
+    }
+
+    private void unbindFields() {
+        for (Field field : BINDABLE_FIELDS.get(getClass())) {
+            try {
+                Object value = field.get(this);
+                if (value instanceof ApplicationProperty) {
+                    ((ApplicationProperty<?>) value).unbindAll();
+                } else if (value instanceof ApplicationAction) {
+                    ((ApplicationAction) value).unbindAll();
+                }
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Could not access field " + field, ex);
+            }
+        }
+    }
+
+    private void useDefaultStrategiesWhereInherited() {
+        if (notificationStrategy == null) {
+            notificationStrategy = NotificationStrategy.getDefault();
+        }
+        if (pushStrategy == null) {
+            pushStrategy = PushStrategy.getDefault();
+        }
+        if (navigatorStrategy == null) {
+            navigatorStrategy = NavigatorStrategy.getDefault();
+        }
+        if (windowStrategy == null) {
+            windowStrategy = WindowStrategy.getDefault();
+        }
+        if (executionStrategy == null) {
+            executionStrategy = ExecutionStrategy.getDefault();
+        }
+    }
+
+    /**
+     * Called when the model is being detached from the parent model, either directly or because the model or one of
+     * its ancestors is being {@link #dispose() disposed}. At this point, the parent model is still accessible by
+     * {@link #getParent()}. The default implementation does nothing, subclasses may override.
      */
     protected void detach() {
     }
@@ -353,44 +1101,100 @@ public abstract class ApplicationModel implements Serializable {
         void onMessage(ApplicationModel source, M message);
     }
 
-    @SuppressWarnings("unchecked")
-    private static class MessageHandlerRegistration implements Serializable {
-        private final Class messageClass;
-        private final MessageHandler messageHandler;
+    /**
+     * Interface for functions that extract the key of a message for coalescing message handlers.
+     *
+     * @see #registerCoalescingMessageHandler(Class, MessageKeyExtractor, MessageHandler)
+     */
+    @FunctionalInterface
+    public interface MessageKeyExtractor<M> extends Serializable {
 
-        MessageHandlerRegistration(Class<?> messageClass, MessageHandler<?> messageHandler) {
-            this.messageClass = messageClass;
-            this.messageHandler = messageHandler;
-        }
+        /**
+         * Returns the key of the specified message.
+         *
+         * @param message the message.
+         * @return the key of the message, may be {@code null}.
+         */
+        Object getKey(M message);
+    }
 
-        boolean supports(Object message) {
-            return this.messageClass.isInstance(message);
-        }
+    /**
+     * Interface for message handlers that are invoked asynchronously, outside of the thread that broadcast the
+     * message. The handler must not touch the UI or any UI bound state directly, but can return a job that does so.
+     *
+     * @see #registerAsyncMessageHandler(Class, AsyncMessageHandler, AsyncDelivery)
+     * @see #broadcastMessage(Object)
+     */
+    @FunctionalInterface
+    public interface AsyncMessageHandler<M> extends Serializable {
 
-        void handleMessage(ApplicationModel source, Object message) {
-            this.messageHandler.onMessage(source, message);
-        }
+        /**
+         * Called when a message has been received.
+         *
+         * @param source the model that originally broadcast the message.
+         * @param message the message.
+         * @return a job to execute through the {@link PushStrategy} of the model that registered the handler, or
+         *         {@code null} if there is nothing to update.
+         */
+        Runnable onMessage(ApplicationModel source, M message);
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o)
-                return true;
-            if (o == null || getClass() != o.getClass())
-                return false;
+    /**
+     * Version stamp shared by all models in a hierarchy. The version is incremented whenever something that the
+     * models resolve from their ancestors changes, which invalidates the {@link ResolvedState}s of the whole hierarchy
+     * at once.
+     */
+    private static final class HierarchyVersion implements Serializable {
 
-            MessageHandlerRegistration that = (MessageHandlerRegistration) o;
+        private volatile int version;
 
-            if (!messageClass.equals(that.messageClass))
-                return false;
-            return messageHandler.equals(that.messageHandler);
+        int get() {
+            return version;
+        }
 
+        synchronized void increment() {
+            ++version;
         }
+    }
 
-        @Override
-        public int hashCode() {
-            int result = messageClass.hashCode();
-            result = 31 * result + messageHandler.hashCode();
-            return result;
+    /**
+     * The strategies and adapters that a child model has resolved from its ancestors. The adapters are only cached if
+     * none of the ancestors overrides {@link ApplicationModel#adapt(Class)}, since an overriding method may return
+     * different results over time.
+     */
+    private static final class ResolvedState {
+
+        final HierarchyVersion hierarchy;
+        final int version;
+        final NavigatorStrategy navigatorStrategy;
+        final PushStrategy pushStrategy;
+        final NotificationStrategy notificationStrategy;
+        final WindowStrategy windowStrategy;
+        final ExecutionStrategy executionStrategy;
+        final ConcurrentMap<Class<?>, Optional<?>> adapters;
+
+        ResolvedState(HierarchyVersion hierarchy, int version, ApplicationModel parent) {
+            this.hierarchy = hierarchy;
+            this.version = version;
+            if (parent == null) {
+                navigatorStrategy = null;
+                pushStrategy = null;
+                notificationStrategy = null;
+                windowStrategy = null;
+                executionStrategy = null;
+                adapters = null;
+            } else {
+                navigatorStrategy = parent.getNavigatorStrategy();
+                pushStrategy = parent.getPushStrategy();
+                notificationStrategy = parent.getNotificationStrategy();
+                windowStrategy = parent.getWindowStrategy();
+                executionStrategy = parent.getExecutionStrategy();
+                boolean cacheAdapters = true;
+                for (ApplicationModel m = parent; m != null && cacheAdapters; m = m.parent) {
+                    cacheAdapters = !OVERRIDES_ADAPT.get(m.getClass());
+                }
+                adapters = cacheAdapters ? new ConcurrentHashMap<>() : null;
+            }
         }
     }
 }
@@ -1,9 +1,11 @@
 package org.vaadin.am4v.framework.model;
 
+import java.io.Serializable;
 import java.util.*;
 
 import org.vaadin.am4v.framework.EnabledChangeListener;
 import org.vaadin.am4v.framework.EnabledChangeNotifier;
+import org.vaadin.am4v.framework.Registration;
 import org.vaadin.am4v.framework.VisibleChangeListener;
 import org.vaadin.am4v.framework.VisibleChangeNotifier;
 import org.vaadin.am4v.framework.binding.Binding;
@@ -14,6 +16,7 @@ import org.vaadin.am4v.framework.binding.FieldBinding;
 import com.vaadin.data.Validatable;
 import com.vaadin.data.Validator;
 import com.vaadin.data.util.ObjectProperty;
+import com.vaadin.data.validator.AbstractValidator;
 import com.vaadin.ui.AbstractField;
 import com.vaadin.ui.Component;
 
@@ -29,12 +32,16 @@ public class ApplicationProperty<T> extends ObjectProperty<T>
     implements EnabledChangeNotifier, VisibleChangeNotifier, Validatable {
 
     private final BindingCollection bindings = new BindingCollection();
-    private final List<EnabledChangeListener> enabledChangeListeners = new LinkedList<>();
-    private final List<VisibleChangeListener> visibleChangeListeners = new LinkedList<>();
+    private final ListenerArray<EnabledChangeListener> enabledChangeListeners = new ListenerArray<>();
+    private final ListenerArray<VisibleChangeListener> visibleChangeListeners = new ListenerArray<>();
+    private final ListenerArray<Dependent> dependents = new ListenerArray<>();
     private final List<Validator> validators = new LinkedList<>();
     private boolean enabled = true;
     private boolean visible = true;
     private boolean invalidAllowed = true;
+    private FieldBinding.CommitPolicy commitPolicy = FieldBinding.CommitPolicy.onBlur();
+    private transient ValidationResult validationResult;
+    private transient boolean trustedWrite;
 
     /**
      * Creates a new application property.
@@ -86,20 +93,29 @@ public class ApplicationProperty<T> extends ObjectProperty<T>
     public void setEnabled(boolean enabled) {
         if (this.enabled != enabled) {
             this.enabled = enabled;
-            new LinkedList<>(enabledChangeListeners).forEach(l -> l.onEnabledChange(this));
+            if (!PropertyBatch.deferEnabledChange(this, !enabled)) {
+                notifyEnabledChangeListeners();
+            }
         }
     }
 
+    void notifyEnabledChangeListeners() {
+        enabledChangeListeners.fire(EnabledChangeListener::onEnabledChange, this);
+    }
+
     @Override
     public boolean isEnabled() {
         return enabled;
     }
 
     @Override
-    public void addEnabledChangeListener(EnabledChangeListener listener) {
-        if (listener != null) {
-            enabledChangeListeners.add(listener);
-        }
+    public Registration addEnabledChangeListener(EnabledChangeListener listener) {
+        return listener == null ? Registration.NONE : enabledChangeListeners.add(listener);
+    }
+
+    @Override
+    public Registration addWeakEnabledChangeListener(EnabledChangeListener listener) {
+        return listener == null ? Registration.NONE : enabledChangeListeners.addWeak(listener);
     }
 
     @Override
@@ -113,20 +129,29 @@ public class ApplicationProperty<T> extends ObjectProperty<T>
     public void setVisible(boolean visible) {
         if (this.visible != visible) {
             this.visible = visible;
-            new LinkedList<>(visibleChangeListeners).forEach(l -> l.onVisibleChanged(this));
+            if (!PropertyBatch.deferVisibleChange(this, !visible)) {
+                notifyVisibleChangeListeners();
+            }
         }
     }
 
+    void notifyVisibleChangeListeners() {
+        visibleChangeListeners.fire(VisibleChangeListener::onVisibleChanged, this);
+    }
+
     @Override
     public boolean isVisible() {
         return visible;
     }
 
     @Override
-    public void addVisibleChangeListener(VisibleChangeListener listener) {
-        if (listener != null) {
-            visibleChangeListeners.add(listener);
-        }
+    public Registration addVisibleChangeListener(VisibleChangeListener listener) {
+        return listener == null ? Registration.NONE : visibleChangeListeners.add(listener);
+    }
+
+    @Override
+    public Registration addWeakVisibleChangeListener(VisibleChangeListener listener) {
+        return listener == null ? Registration.NONE : visibleChangeListeners.addWeak(listener);
     }
 
     @Override
@@ -141,32 +166,73 @@ public class ApplicationProperty<T> extends ObjectProperty<T>
      *
      * @see ComponentBinding
      * @param component the component.
+     * @return a registration for unbinding the property (never {@code null}).
      */
-    public void bind(Component component) {
-        bind(new ComponentBinding<>(this, component));
+    public Registration bind(Component component) {
+        return bind(new ComponentBinding<>(this, component));
     }
 
     /**
-     * Binds this property to the specified field.
+     * Binds this property to the specified field. If the type of the field differs from the type of the property
+     * (e.g. a {@link com.vaadin.ui.TextField} bound to an {@link IntApplicationProperty}), the converter of the field
+     * is used.
+     * 
+     * The value of the field is committed to this property according to the {@link #getCommitPolicy() commit
+     * policy} of the property.
      * 
      * @see FieldBinding
      * @param field the field.
+     * @return a registration for unbinding the property (never {@code null}).
+     */
+    public Registration bind(AbstractField<?> field) {
+        return bind(field, commitPolicy);
+    }
+
+    /**
+     * Binds this property to the specified field, using the specified commit policy instead of the commit policy of
+     * the property.
+     *
+     * @see #bind(AbstractField)
+     * @param field the field.
+     * @param commitPolicy the commit policy to use for this binding.
+     * @return a registration for unbinding the property (never {@code null}).
+     */
+    public Registration bind(AbstractField<?> field, FieldBinding.CommitPolicy commitPolicy) {
+        return bind(new FieldBinding<>(this, field, commitPolicy));
+    }
+
+    /**
+     * Sets the policy that controls when the values of the fields bound to this property are committed, e.g.
+     * {@link FieldBinding.CommitPolicy#debounced(int)} for a search field that should react while the user is typing.
+     * The policy only applies to fields bound after it has been set.
+     *
+     * @param commitPolicy the commit policy, or {@code null} to use the default policy.
      */
-    public void bind(AbstractField<T> field) {
-        bind(new FieldBinding<>(this, field));
+    public void setCommitPolicy(FieldBinding.CommitPolicy commitPolicy) {
+        this.commitPolicy = commitPolicy == null ? FieldBinding.CommitPolicy.onBlur() : commitPolicy;
+    }
+
+    /**
+     * Returns the policy that controls when the values of the fields bound to this property are committed.
+     *
+     * @return the commit policy (never {@code null}).
+     */
+    public FieldBinding.CommitPolicy getCommitPolicy() {
+        return commitPolicy;
     }
 
     /**
      * Registers the specified binding with this property.
      *
      * @param binding the binding to use.
+     * @return a registration for removing the binding (never {@code null}).
      */
-    protected final <VIEW> void bind(Binding<ApplicationProperty, VIEW> binding) {
+    protected final <VIEW> Registration bind(Binding<ApplicationProperty, VIEW> binding) {
         Objects.requireNonNull(binding, "binding must not be null");
         if (binding.getModel() != this) {
             throw new IllegalArgumentException("Binding must be bound to this ApplicationProperty");
         }
-        bindings.bind(binding);
+        return bindings.bind(binding);
     }
 
     /**
@@ -178,23 +244,34 @@ public class ApplicationProperty<T> extends ObjectProperty<T>
         bindings.unbind(view);
     }
 
+    /**
+     * Unbinds this property from all views it has been bound to.
+     *
+     * @see ApplicationModel#dispose()
+     */
+    public final void unbindAll() {
+        bindings.unbindAll();
+    }
+
     @Override
     public final void addValidator(Validator validator) {
         if (validator != null) {
             validators.add(validator);
+            invalidateValidationResult();
         }
     }
 
     @Override
     public final void removeValidator(Validator validator) {
-        if (validator != null) {
-            validators.remove(validator);
+        if (validator != null && validators.remove(validator)) {
+            invalidateValidationResult();
         }
     }
 
     @Override
     public final void removeAllValidators() {
         validators.clear();
+        invalidateValidationResult();
     }
 
     @Override
@@ -202,20 +279,82 @@ public class ApplicationProperty<T> extends ObjectProperty<T>
         return Collections.unmodifiableCollection(validators);
     }
 
+    /**
+     * Checks whether the value of this property is valid.
+     *
+     * @see #getValidationResult()
+     */
     @Override
     public final boolean isValid() {
-        try {
-            validate();
-            return true;
-        } catch (Validator.InvalidValueException ex) {
-            return false;
-        }
+        return getValidationResult().isOk();
     }
 
+    /**
+     * Validates the value of this property, throwing an exception if it is invalid.
+     *
+     * @see #getValidationResult()
+     */
     @Override
     public final void validate() throws Validator.InvalidValueException {
+        getValidationResult().throwIfError();
+    }
+
+    /**
+     * Returns the result of validating the current value of this property. The result is cached until the value is
+     * set or a validator is added or removed, so calling this method repeatedly costs next to nothing. Note that the
+     * cache cannot detect changes made to a mutable value object in place.
+     * <p>
+     * {@link PropertyValidator}s and validators extending {@link AbstractValidator} without overriding
+     * {@link AbstractValidator#validate(Object) validate} are checked without throwing any exceptions. Other validators
+     * can only report failures by throwing {@link Validator.InvalidValueException}, but even then the exception is
+     * thrown only once per value.
+     *
+     * @return the validation result (never {@code null}).
+     */
+    public final ValidationResult getValidationResult() {
+        ValidationResult result = validationResult;
+        if (result == null) {
+            result = computeValidationResult();
+            validationResult = result;
+        }
+        return result;
+    }
+
+    /**
+     * Discards the cached {@link #getValidationResult() validation result}, so that the value is validated again the
+     * next time the result is needed.
+     */
+    final void invalidateValidationResult() {
+        validationResult = null;
+    }
+
+    private ValidationResult computeValidationResult() {
+        ValidationResult primitiveResult = validatePrimitiveValue();
+        if (primitiveResult.isError()) {
+            return primitiveResult;
+        }
+        if (validators.isEmpty()) {
+            return ValidationResult.ok();
+        }
         Object value = getValue();
-        validators.forEach(v -> v.validate(value));
+        for (Validator validator : validators) {
+            ValidationResult result = ValidatorAdapter.validate(validator, value);
+            if (result.isError()) {
+                return result;
+            }
+        }
+        return ValidationResult.ok();
+    }
+
+    /**
+     * Runs the validators of the primitive-specialized subclasses, which validate the value without boxing it. This
+     * method is called before the ordinary validators. Like {@link PropertyValidator}s, the primitive validators report
+     * failures as results rather than exceptions.
+     *
+     * @return the result of the first failing validator, or a successful result.
+     */
+    ValidationResult validatePrimitiveValue() {
+        return ValidationResult.ok();
     }
 
     @Override
@@ -227,4 +366,98 @@ public class ApplicationProperty<T> extends ObjectProperty<T>
     public final void setInvalidAllowed(boolean invalidValueAllowed) throws UnsupportedOperationException {
         this.invalidAllowed = invalidValueAllowed;
     }
+
+    @Override
+    public boolean isReadOnly() {
+        return super.isReadOnly() && !trustedWrite;
+    }
+
+    /**
+     * Discards the cached validation result and notifies the value change listeners, unless the notification is
+     * deferred by a batch.
+     *
+     * @see ApplicationModel#batch(Runnable)
+     */
+    @Override
+    protected final void fireValueChange() {
+        invalidateValidationResult();
+        if (!PropertyBatch.deferValueChange(this)) {
+            notifyValueChangeListeners();
+        }
+    }
+
+    /**
+     * Notifies the value change listeners right away. Subclasses with listeners of their own override this method.
+     */
+    void notifyValueChangeListeners() {
+        // The constructor of ObjectProperty sets the value before the fields of this class have been initialized
+        if (dependents != null) {
+            dependents.fire(Dependent::dependencyChanged, this);
+        }
+        super.fireValueChange();
+    }
+
+    /**
+     * Returns the value of this property. If a {@link ComputedProperty} is being computed, this property becomes one
+     * of its dependencies.
+     */
+    @Override
+    public T getValue() {
+        DependencyTracker.recordRead(this);
+        return super.getValue();
+    }
+
+    /**
+     * Registers a dependent to be notified (before the value change listeners) when the value of this property changes.
+     *
+     * @param dependent the dependent to add.
+     * @return a registration for removing the dependent.
+     */
+    Registration addDependent(Dependent dependent) {
+        return dependents.add(dependent);
+    }
+
+    /**
+     * Registers a dependent using a weak reference.
+     *
+     * @see #addDependent(Dependent)
+     * @param dependent the dependent to add.
+     * @return a registration for removing the dependent.
+     */
+    Registration addWeakDependent(Dependent dependent) {
+        return dependents.addWeak(dependent);
+    }
+
+    /**
+     * Sets the value of this property even if it is read-only, without touching the read-only flag. The value change
+     * notification is deferred until the read-only flag is effective again.
+     *
+     * @see ApplicationModel#setValue(ApplicationProperty, Object)
+     * @param value the new value.
+     */
+    final void setTrustedValue(T value) {
+        PropertyBatch.run(() -> {
+            trustedWrite = true;
+            try {
+                setValue(value);
+            } finally {
+                trustedWrite = false;
+            }
+        });
+    }
+
+    /**
+     * Internal listener notified when the value of a property changes, used for tracking the dependencies of
+     * {@link ComputedProperty computed properties}.
+     */
+    @FunctionalInterface
+    interface Dependent extends Serializable {
+
+        /**
+         * Called when the value of the dependency has changed.
+         *
+         * @param dependency the property whose value has changed.
+         */
+        void dependencyChanged(ApplicationProperty<?> dependency);
+    }
 }
@@ -0,0 +1,277 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * An {@link ApplicationAction} whose worker runs in the background using the {@link ExecutionStrategy} of the owning
+ * model, so that a slow worker does not block the UI. The result is passed to a {@link ResultHandler} using the
+ * {@link PushStrategy} of the model, i.e. with the session locked.
+ * <p>
+ * While the worker is running, the action is busy: it reports itself as disabled, so all the buttons and menu items
+ * bound to it are disabled as well, and further invocations are ignored. This means that double submits from one or
+ * several bound components collapse into a single execution. The worker can report its progress through the
+ * {@link ProgressMonitor}, which is reflected in the {@link #getProgress() progress property}, and can be
+ * {@link #cancel() cancelled}. Cancellation is cooperative: the worker should check
+ * {@link ProgressMonitor#isCancelled()} and give up as soon as possible, but the action is available again right away
+ * and the result of a cancelled execution is discarded.
+ * <p>
+ * All methods of this class, except those of the {@link ProgressMonitor}, must be called with the session locked.
+ *
+ * @param <T> the type of the result.
+ */
+public class AsyncApplicationAction<T> extends ApplicationAction {
+
+    private final ApplicationModel owner;
+    private final BackgroundWorker<T> worker;
+    private final ResultHandler<T> resultHandler;
+    private final ApplicationProperty<Float> progress = new ApplicationProperty<>(0f, Float.class);
+    private final ApplicationAction cancel = new ApplicationAction(action -> cancel()) {
+        @Override
+        public boolean isEnabled() {
+            return super.isEnabled() && isBusy();
+        }
+    };
+    private ErrorHandler errorHandler;
+    // Not serialized, since the worker does not survive the session being serialized anyway
+    private transient Execution execution;
+
+    /**
+     * Creates a new asynchronous action.
+     *
+     * @param owner the model that owns the action and provides the execution and push strategies.
+     * @param worker the worker that runs in the background.
+     * @param resultHandler the handler that receives the result of the worker.
+     */
+    public AsyncApplicationAction(ApplicationModel owner, BackgroundWorker<T> worker, ResultHandler<T> resultHandler) {
+        this.owner = Objects.requireNonNull(owner, "owner must not be null");
+        this.worker = Objects.requireNonNull(worker, "worker must not be null");
+        this.resultHandler = Objects.requireNonNull(resultHandler, "resultHandler must not be null");
+        progress.setReadOnly(true);
+    }
+
+    /**
+     * Starts the worker in the background, unless it is already running or the action has been disabled. The progress
+     * is reset to zero.
+     */
+    @Override
+    public void run() {
+        if (!isEnabled()) {
+            return;
+        }
+        // Bind the push strategy now, since the default strategy relies on the current UI
+        PushStrategy pushStrategy = owner.getPushStrategy().bindToCurrentUI();
+        Execution current = new Execution();
+        setExecution(current);
+        setProgressValue(0f);
+        try {
+            owner.getExecutionStrategy().execute(() -> current.run(pushStrategy));
+        } catch (RuntimeException ex) {
+            setExecution(null);
+            throw ex;
+        }
+    }
+
+    /**
+     * Cancels the current execution, if any. The result of the worker will be discarded and the action becomes
+     * available again right away.
+     */
+    public void cancel() {
+        if (execution != null) {
+            execution.cancelled = true;
+            setExecution(null);
+        }
+    }
+
+    /**
+     * Checks whether the worker is currently running. An action that was busy when the session was serialized is no
+     * longer busy after it has been deserialized.
+     *
+     * @return true if the action is busy, false otherwise.
+     */
+    public boolean isBusy() {
+        return execution != null;
+    }
+
+    /**
+     * Returns whether the action can be run, which requires it to be enabled and not {@link #isBusy() busy}.
+     */
+    @Override
+    public boolean isEnabled() {
+        return super.isEnabled() && !isBusy();
+    }
+
+    /**
+     * Property containing the progress of the current (or latest) execution, between 0 and 1. The property is read
+     * only from the outside and can be bound to e.g. a {@link com.vaadin.ui.ProgressBar}.
+     *
+     * @return the progress property.
+     */
+    public ApplicationProperty<Float> getProgress() {
+        return progress;
+    }
+
+    /**
+     * Action that {@link #cancel() cancels} the current execution. The action is only enabled while this action is
+     * {@link #isBusy() busy}.
+     *
+     * @return the cancel action.
+     */
+    public ApplicationAction getCancel() {
+        return cancel;
+    }
+
+    /**
+     * Sets the handler that receives any exception thrown by the worker. If no handler has been set, the exception is
+     * rethrown inside the push job, where it ends up in the error handling of the UI.
+     *
+     * @param errorHandler the error handler, or {@code null} to use the default behavior.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public AsyncApplicationAction<T> setErrorHandler(ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    private void setExecution(Execution execution) {
+        this.execution = execution;
+        cancel.fireEnabledChange();
+        fireEnabledChange();
+    }
+
+    private void setProgressValue(float value) {
+        progress.setTrustedValue(value);
+    }
+
+    private void complete(Execution completed, T result, Throwable error) {
+        if (execution != completed || owner.isDisposed()) {
+            // Cancelled, possibly followed by a new execution
+            return;
+        }
+        setExecution(null);
+        MessageCoalescingScope.run(() -> {
+            if (error == null) {
+                setProgressValue(1f);
+                resultHandler.onResult(result);
+            } else if (errorHandler != null) {
+                errorHandler.onError(error);
+            } else if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            } else {
+                throw new IllegalStateException("Action failed", error);
+            }
+        });
+    }
+
+    /**
+     * A single execution of the worker.
+     */
+    private final class Execution implements ProgressMonitor {
+
+        private final Object progressKey = new Object();
+        private volatile boolean cancelled;
+        private PushStrategy pushStrategy;
+
+        void run(PushStrategy pushStrategy) {
+            this.pushStrategy = pushStrategy;
+            T result = null;
+            Throwable error = null;
+            try {
+                result = worker.execute(this);
+            } catch (Throwable ex) {
+                error = ex;
+            }
+            T finalResult = result;
+            Throwable finalError = error;
+            pushStrategy.execute(() -> complete(this, finalResult, finalError));
+        }
+
+        @Override
+        public void setProgress(float value) {
+            if (!cancelled) {
+                // Progress updates supersede each other, so a batching push strategy only needs to apply the latest
+                pushStrategy.execute(progressKey, () -> {
+                    if (execution == this) {
+                        setProgressValue(value);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Interface through which a {@link BackgroundWorker} reports its progress and finds out whether it has been
+     * cancelled. The methods may be called from any thread.
+     */
+    public interface ProgressMonitor {
+
+        /**
+         * Reports the progress of the worker.
+         *
+         * @param value the progress, between 0 and 1.
+         */
+        void setProgress(float value);
+
+        /**
+         * Checks whether the execution has been cancelled, in which case the worker should give up.
+         *
+         * @return true if cancelled, false otherwise.
+         */
+        boolean isCancelled();
+    }
+
+    /**
+     * Functional interface for the worker that runs in the background.
+     *
+     * @param <T> the type of the result.
+     */
+    @FunctionalInterface
+    public interface BackgroundWorker<T> extends Serializable {
+
+        /**
+         * Performs the work. This method is called in a background thread, so it must not touch the UI or the models.
+         *
+         * @param monitor the monitor for reporting progress and checking for cancellation.
+         * @return the result, which is passed to the {@link ResultHandler}.
+         * @throws Exception if the work fails.
+         */
+        T execute(ProgressMonitor monitor) throws Exception;
+    }
+
+    /**
+     * Functional interface for the handler that receives the result of the worker.
+     *
+     * @param <T> the type of the result.
+     */
+    @FunctionalInterface
+    public interface ResultHandler<T> extends Serializable {
+
+        /**
+         * Called with the session locked when the worker has completed successfully.
+         *
+         * @param result the result of the worker.
+         */
+        void onResult(T result);
+    }
+
+    /**
+     * Functional interface for the handler that receives the exceptions thrown by the worker.
+     */
+    @FunctionalInterface
+    public interface ErrorHandler extends Serializable {
+
+        /**
+         * Called with the session locked when the worker has failed.
+         *
+         * @param error the exception thrown by the worker.
+         */
+        void onError(Throwable error);
+    }
+}
@@ -0,0 +1,110 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Configuration of how messages are delivered to an {@link ApplicationModel.AsyncMessageHandler}. Every asynchronous
+ * handler registration has its own queue of pending messages that is drained one message at a time by the
+ * {@link #getExecutor() executor}, which means that a handler always receives messages in the order they were
+ * broadcast. The queue is bounded by {@link #getMaxPendingMessages()} and the {@link #getOverflowPolicy() overflow
+ * policy} decides what happens when a flood of messages fills it up.
+ * <p>
+ * The executor is not serialized together with the session. If the registration is deserialized, the
+ * {@link ForkJoinPool#commonPool() common pool} is used instead.
+ *
+ * @see ApplicationModel#registerAsyncMessageHandler(Class, ApplicationModel.AsyncMessageHandler, AsyncDelivery)
+ */
+public class AsyncDelivery implements Serializable {
+
+    /**
+     * The default maximum number of pending messages per handler.
+     */
+    public static final int DEFAULT_MAX_PENDING_MESSAGES = 100;
+
+    /**
+     * Enumeration of the policies that can be applied when the queue of pending messages is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discards the oldest pending message to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Discards the new message, keeping the pending ones.
+         */
+        DROP_NEWEST,
+        /**
+         * Discards the new message like {@link #DROP_NEWEST}, but also logs a warning about it. The message is still
+         * delivered to the other handlers.
+         */
+        FAIL
+    }
+
+    private transient Executor executor;
+    private int maxPendingMessages = DEFAULT_MAX_PENDING_MESSAGES;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    /**
+     * Creates a new {@code AsyncDelivery} that uses the specified executor.
+     *
+     * @param executor the executor that will invoke the message handler.
+     */
+    public AsyncDelivery(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+    }
+
+    /**
+     * Returns the executor that invokes the message handler.
+     *
+     * @return the executor (never {@code null}).
+     */
+    public Executor getExecutor() {
+        return executor == null ? ForkJoinPool.commonPool() : executor;
+    }
+
+    /**
+     * Returns the maximum number of messages that can be waiting for the handler at any given time.
+     *
+     * @return the maximum number of pending messages.
+     */
+    public int getMaxPendingMessages() {
+        return maxPendingMessages;
+    }
+
+    /**
+     * Sets the maximum number of messages that can be waiting for the handler at any given time.
+     *
+     * @param maxPendingMessages the maximum number of pending messages (must be positive).
+     * @return {@code this}, to make method chaining possible.
+     */
+    public AsyncDelivery setMaxPendingMessages(int maxPendingMessages) {
+        if (maxPendingMessages < 1) {
+            throw new IllegalArgumentException("maxPendingMessages must be positive");
+        }
+        this.maxPendingMessages = maxPendingMessages;
+        return this;
+    }
+
+    /**
+     * Returns the policy to apply when the queue of pending messages is full.
+     *
+     * @return the overflow policy (never {@code null}).
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets the policy to apply when the queue of pending messages is full.
+     *
+     * @param overflowPolicy the overflow policy.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public AsyncDelivery setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy must not be null");
+        return this;
+    }
+}
@@ -0,0 +1,114 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registration of an {@link ApplicationModel.AsyncMessageHandler}. Incoming messages are put in a bounded queue that
+ * is drained by a single task at a time on the executor of the {@link AsyncDelivery}, which keeps the messages in
+ * order. Any UI job returned by the handler is passed to the {@link PushStrategy} of the model that registered the
+ * handler. The strategy is {@link PushStrategy#bindToCurrentUI() bound} when the handler is registered, since the
+ * jobs are passed to it from the executor, where there is no current UI.
+ * <p>
+ * A message that cannot be queued or delivered is logged and dropped, so that it does not prevent the message from
+ * reaching the other handlers. The pending messages are not serialized, since the task draining them is left behind
+ * together with the executor.
+ */
+@SuppressWarnings("unchecked")
+class AsyncMessageHandlerRegistration extends MessageHandlerRegistration {
+
+    private final PushStrategy pushStrategy;
+    private final AsyncDelivery delivery;
+    private transient Deque<PendingMessage> pendingMessages = new ArrayDeque<>();
+    private transient boolean draining;
+
+    /**
+     * Creates a new registration.
+     *
+     * @param messageClass the class of the messages to receive.
+     * @param messageHandler the message handler.
+     * @param owner the model that registered the handler, or {@code null} if the registration is only used for
+     *        looking up an existing registration.
+     * @throws IllegalStateException if the owner uses the default push strategy and there is no current UI.
+     * @param delivery the delivery configuration, or {@code null} if the registration is only used for looking up an
+     *        existing registration.
+     */
+    AsyncMessageHandlerRegistration(Class<?> messageClass, ApplicationModel.AsyncMessageHandler<?> messageHandler,
+        ApplicationModel owner, AsyncDelivery delivery) {
+        super(messageClass, messageHandler);
+        this.pushStrategy = owner == null ? null : owner.getPushStrategy().bindToCurrentUI();
+        this.delivery = delivery;
+    }
+
+    @Override
+    void handleMessage(ApplicationModel source, Object message) {
+        boolean startDraining;
+        synchronized (pendingMessages) {
+            if (pendingMessages.size() >= delivery.getMaxPendingMessages()) {
+                switch (delivery.getOverflowPolicy()) {
+                    case DROP_OLDEST:
+                        pendingMessages.removeFirst();
+                        break;
+                    case DROP_NEWEST:
+                        return;
+                    default:
+                        getLogger().log(Level.WARNING, "Too many pending messages for handler, dropping " + message);
+                        return;
+                }
+            }
+            pendingMessages.addLast(new PendingMessage(source, message));
+            startDraining = !draining;
+            draining = true;
+        }
+        if (startDraining) {
+            try {
+                delivery.getExecutor().execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                int droppedMessages;
+                synchronized (pendingMessages) {
+                    droppedMessages = pendingMessages.size();
+                    pendingMessages.clear();
+                    draining = false;
+                }
+                getLogger().log(Level.SEVERE,
+                    "Could not deliver " + droppedMessages + " pending messages to handler", ex);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        pendingMessages = new ArrayDeque<>();
+    }
+
+    private void drain() {
+        while (true) {
+            PendingMessage pendingMessage;
+            synchronized (pendingMessages) {
+                pendingMessage = pendingMessages.pollFirst();
+                if (pendingMessage == null) {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                Runnable job = ((ApplicationModel.AsyncMessageHandler) getMessageHandler())
+                    .onMessage(pendingMessage.source, pendingMessage.message);
+                if (job != null) {
+                    pushStrategy.execute(job);
+                }
+            } catch (RuntimeException ex) {
+                getLogger().log(Level.SEVERE, "Error handling message " + pendingMessage.message, ex);
+            }
+        }
+    }
+
+    private static Logger getLogger() {
+        return Logger.getLogger(AsyncMessageHandlerRegistration.class.getName());
+    }
+}
@@ -0,0 +1,173 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Asynchronous validation of an {@link ApplicationProperty}, for rules that need e.g. a backend lookup and would block
+ * the UI if they were run by an ordinary validator. Whenever the value of the property changes, the
+ * {@link AsyncValidator} is run in the background by a {@link BackgroundLoader}, which means that the checks are
+ * {@link #setDebounceDelay(long) debounced}, that a check that is still running when the value changes again is
+ * superseded and its result discarded, and that the result is published through the {@link PushStrategy} of the
+ * owning model.
+ * <p>
+ * The outcome is published as a {@link #getState() state property} (pending, valid or invalid) that views can observe.
+ * The asynchronous validation can also take part in a {@link ValidationGraph} through {@link #asRule()}, in which case
+ * the graph stays invalid while a check is pending. If the ordinary validators of the property reject the value, no
+ * asynchronous check is made at all.
+ * <p>
+ * All methods of this class must be called with the session locked. When the session is deserialized, the validation
+ * registers with the property again, but a check that was pending when the session was serialized is lost and is not
+ * made until the value changes or {@link #check()} is called.
+ *
+ * @param <T> the type of the property value.
+ */
+public class AsyncValidation<T> implements Serializable {
+
+    /**
+     * The default debounce delay in milliseconds.
+     */
+    public static final long DEFAULT_DEBOUNCE_DELAY = 300;
+
+    private final ApplicationProperty<T> property;
+    private final BackgroundLoader<T, ValidationResult> loader;
+    private final ApplicationProperty<State> state = new ApplicationProperty<>(State.PENDING, State.class, true);
+    // Held strongly by this object, since the property only references it weakly
+    private final ApplicationProperty.Dependent invalidator = dependency -> check();
+    private ValidationResult result = ValidationResult.ok();
+    private boolean rejectedByValidators;
+
+    /**
+     * Creates a new asynchronous validation and starts checking the current value of the property.
+     *
+     * @param owner the model that owns the property and provides the execution and push strategies.
+     * @param property the property to validate.
+     * @param validator the validator to run in the background.
+     */
+    public AsyncValidation(ApplicationModel owner, ApplicationProperty<T> property, AsyncValidator<T> validator) {
+        this.property = Objects.requireNonNull(property, "property must not be null");
+        Objects.requireNonNull(validator, "validator must not be null");
+        loader = new BackgroundLoader<T, ValidationResult>(owner, validator::validate, (value, r) -> publish(r))
+            .setErrorHandler((value, ex) -> publish(ValidationResult.error(ex.getMessage() == null
+                ? "The value could not be validated" : ex.getMessage())))
+            .setDebounceDelay(DEFAULT_DEBOUNCE_DELAY);
+        property.addWeakDependent(invalidator);
+        check();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // The weak registration is not serialized. The property may not have been fully restored yet, so wait until
+        // the whole object graph has been read.
+        in.registerValidation(() -> property.addWeakDependent(invalidator), 0);
+    }
+
+    /**
+     * Sets the delay to wait for the value to settle before starting a check.
+     *
+     * @param debounceDelay the delay in milliseconds.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public AsyncValidation<T> setDebounceDelay(long debounceDelay) {
+        loader.setDebounceDelay(debounceDelay);
+        return this;
+    }
+
+    /**
+     * Read-only property containing the state of the validation.
+     *
+     * @return the state property.
+     */
+    public ApplicationProperty<State> getState() {
+        return state;
+    }
+
+    /**
+     * Returns the result of the latest completed check. While a check is {@link State#PENDING pending}, this is the
+     * result of the previous check.
+     *
+     * @return the validation result (never {@code null}).
+     */
+    public ValidationResult getResult() {
+        return result;
+    }
+
+    /**
+     * Returns a rule for adding this validation to a {@link ValidationGraph}. The rule fails while a check is pending
+     * and when the latest check failed. Values rejected by the ordinary validators of the property are left to the
+     * property node of the graph, so that the same error is not reported twice.
+     *
+     * @return the rule.
+     */
+    public ValidationGraph.Rule asRule() {
+        return () -> {
+            State current = state.getValue();
+            if (current == State.PENDING) {
+                return ValidationResult.error("The value is being validated");
+            }
+            return rejectedByValidators ? ValidationResult.ok() : result;
+        };
+    }
+
+    /**
+     * Checks the current value of the property again, e.g. because the data in the backend has changed.
+     */
+    public void check() {
+        ValidationResult syncResult = property.getValidationResult();
+        if (syncResult.isError()) {
+            // No point in asking the backend about a value that is invalid anyway
+            loader.cancel();
+            rejectedByValidators = true;
+            publish(syncResult);
+        } else {
+            rejectedByValidators = false;
+            state.setTrustedValue(State.PENDING);
+            loader.load(property.getValue());
+        }
+    }
+
+    private void publish(ValidationResult result) {
+        // Set the result first, so that listeners of the state see the right result
+        this.result = result;
+        state.setTrustedValue(result.isOk() ? State.VALID : State.INVALID);
+    }
+
+    /**
+     * The state of an asynchronous validation.
+     */
+    public enum State {
+        /**
+         * The value is being checked.
+         */
+        PENDING,
+        /**
+         * The latest check accepted the value.
+         */
+        VALID,
+        /**
+         * The latest check rejected the value.
+         */
+        INVALID
+    }
+
+    /**
+     * Functional interface for validators that run in the background.
+     *
+     * @param <T> the type of the value.
+     */
+    @FunctionalInterface
+    public interface AsyncValidator<T> extends Serializable {
+
+        /**
+         * Validates the value. This method is called in a background thread, so it must not touch the UI or the
+         * models.
+         *
+         * @param value the value to validate.
+         * @return the validation result (never {@code null}).
+         * @throws Exception if the value could not be validated, which is treated as a validation failure.
+         */
+        ValidationResult validate(T value) throws Exception;
+    }
+}
@@ -0,0 +1,264 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.vaadin.am4v.framework.SharedExecutors;
+
+/**
+ * Loads data in the background for application models whose contents depend on a selection, such as a list of
+ * messages depending on the selected folder. The loading is latest-wins: every call to {@link #load(Object)}
+ * supersedes the previous one. Superseded loads that have not started yet are skipped and the results of superseded
+ * loads that have already started are discarded, so only the result of the newest load is passed to the
+ * {@link ResultHandler}. The result handler is invoked in a single push job, with the session locked.
+ * <p>
+ * Optionally, the loads can be {@link #setDebounceDelay(long) debounced}, in which case a load does not start until
+ * no new load has been requested for the duration of the delay. This is useful when the user navigates quickly
+ * through e.g. a tree or a table using the arrow keys. The debouncing uses one of the
+ * {@link SharedExecutors shared executors}.
+ * <p>
+ * The loader uses the {@link ApplicationModel#getExecutionStrategy() execution strategy} and the
+ * {@link ApplicationModel#getPushStrategy() push strategy} of the owning model. If the owning model has been
+ * {@link ApplicationModel#dispose() disposed} by the time a load completes, the result is discarded. All methods of
+ * this class must be called with the session locked.
+ *
+ * @param <K> the type of the key (e.g. the selected item) to load data for.
+ * @param <V> the type of the loaded data.
+ */
+public class BackgroundLoader<K, V> implements Serializable {
+
+    private final ApplicationModel owner;
+    private final Loader<K, V> loader;
+    private final ResultHandler<K, V> resultHandler;
+    private ErrorHandler<K> errorHandler;
+    private long debounceDelay;
+    private volatile int generation;
+    // A load in progress does not survive serialization, since its thread is left behind in the original JVM
+    private transient boolean loading;
+    private transient ScheduledFuture<?> pendingLoad;
+
+    /**
+     * Creates a new background loader.
+     *
+     * @param owner the model that owns the loader and provides the execution and push strategies.
+     * @param loader the loader that loads the data in the background.
+     * @param resultHandler the handler that receives the loaded data.
+     */
+    public BackgroundLoader(ApplicationModel owner, Loader<K, V> loader, ResultHandler<K, V> resultHandler) {
+        this.owner = Objects.requireNonNull(owner, "owner must not be null");
+        this.loader = Objects.requireNonNull(loader, "loader must not be null");
+        this.resultHandler = Objects.requireNonNull(resultHandler, "resultHandler must not be null");
+    }
+
+    /**
+     * Sets the delay to wait for further load requests before starting a load. The default is zero, which means that
+     * the loads start immediately.
+     *
+     * @param debounceDelay the delay in milliseconds.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public BackgroundLoader<K, V> setDebounceDelay(long debounceDelay) {
+        if (debounceDelay < 0) {
+            throw new IllegalArgumentException("debounceDelay must not be negative");
+        }
+        this.debounceDelay = debounceDelay;
+        return this;
+    }
+
+    /**
+     * Returns the delay to wait for further load requests before starting a load.
+     *
+     * @return the delay in milliseconds.
+     */
+    public long getDebounceDelay() {
+        return debounceDelay;
+    }
+
+    /**
+     * Sets the handler that receives any exception thrown by the loader. If no handler has been set, the exception is
+     * rethrown inside the push job, where it ends up in the error handling of the UI.
+     *
+     * @param errorHandler the error handler, or {@code null} to use the default behavior.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public BackgroundLoader<K, V> setErrorHandler(ErrorHandler<K> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    /**
+     * Requests the data for the specified key to be loaded, superseding any previous request. If the load cannot be
+     * started because the execution strategy rejects it, the {@link RejectedExecutionException} is treated like an
+     * exception thrown by the loader.
+     *
+     * @param key the key to load data for, may be {@code null} if the loader supports it.
+     * @throws IllegalStateException if the owning model uses the default push strategy and there is no current UI.
+     */
+    public void load(K key) {
+        // Resolve the strategies now, since the default push strategy relies on the current UI and the debounced task
+        // runs without the session lock
+        PushStrategy pushStrategy = owner.getPushStrategy().bindToCurrentUI();
+        ExecutionStrategy executionStrategy = owner.getExecutionStrategy();
+        int current = supersede();
+        loading = true;
+        Runnable task = () -> executionStrategy.execute(() -> runLoad(current, key, pushStrategy));
+        try {
+            if (debounceDelay > 0) {
+                pendingLoad = DebounceScheduler.INSTANCE.schedule(() -> {
+                    try {
+                        task.run();
+                    } catch (RejectedExecutionException ex) {
+                        // Nobody would see the exception in the scheduler thread, so report it like a failed load
+                        publish(current, pushStrategy, () -> handleError(key, ex));
+                    }
+                }, debounceDelay, TimeUnit.MILLISECONDS);
+            } else {
+                task.run();
+            }
+        } catch (RejectedExecutionException ex) {
+            loading = false;
+            handleError(key, ex);
+        }
+    }
+
+    /**
+     * Cancels the current request, if any. Its result will be discarded.
+     */
+    public void cancel() {
+        supersede();
+        loading = false;
+    }
+
+    /**
+     * Checks whether there is a request whose result has not been passed to the result handler yet. A request that
+     * was in progress when the loader was serialized is abandoned, so a deserialized loader is not loading.
+     *
+     * @return true if loading, false otherwise.
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    private int supersede() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+            pendingLoad = null;
+        }
+        // Only written with the session locked, so there are no lost updates
+        return ++generation;
+    }
+
+    private boolean isCurrent(int loadGeneration) {
+        return generation == loadGeneration;
+    }
+
+    private void runLoad(int loadGeneration, K key, PushStrategy pushStrategy) {
+        if (!isCurrent(loadGeneration)) {
+            // Superseded while waiting for a thread
+            return;
+        }
+        Runnable job;
+        try {
+            V result = loader.load(key);
+            job = () -> resultHandler.onResult(key, result);
+        } catch (Throwable ex) {
+            job = () -> handleError(key, ex);
+        }
+        publish(loadGeneration, pushStrategy, job);
+    }
+
+    private void publish(int loadGeneration, PushStrategy pushStrategy, Runnable handlerJob) {
+        // Keyed by the loader, so a batching push strategy can drop results that are superseded before they are pushed
+        pushStrategy.execute(this, () -> {
+            if (isCurrent(loadGeneration) && !owner.isDisposed()) {
+                loading = false;
+                MessageCoalescingScope.run(handlerJob);
+            }
+        });
+    }
+
+    private void handleError(K key, Throwable error) {
+        if (errorHandler != null) {
+            errorHandler.onError(key, error);
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else {
+            throw new IllegalStateException("Loading failed", error);
+        }
+    }
+
+    /**
+     * Functional interface for the loader that loads the data in the background.
+     *
+     * @param <K> the type of the key.
+     * @param <V> the type of the loaded data.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> extends Serializable {
+
+        /**
+         * Loads the data for the specified key. This method is called in a background thread, so it must not touch
+         * the UI or the models.
+         *
+         * @param key the key to load data for.
+         * @return the loaded data.
+         * @throws Exception if the loading fails.
+         */
+        V load(K key) throws Exception;
+    }
+
+    /**
+     * Functional interface for the handler that receives the loaded data.
+     *
+     * @param <K> the type of the key.
+     * @param <V> the type of the loaded data.
+     */
+    @FunctionalInterface
+    public interface ResultHandler<K, V> extends Serializable {
+
+        /**
+         * Called with the session locked when the newest load has completed successfully.
+         *
+         * @param key the key the data was loaded for.
+         * @param result the loaded data.
+         */
+        void onResult(K key, V result);
+    }
+
+    /**
+     * Functional interface for the handler that receives the exceptions thrown by the loader.
+     *
+     * @param <K> the type of the key.
+     */
+    @FunctionalInterface
+    public interface ErrorHandler<K> extends Serializable {
+
+        /**
+         * Called with the session locked when the newest load has failed.
+         *
+         * @param key the key the data was being loaded for.
+         * @param error the exception thrown by the loader.
+         */
+        void onError(K key, Throwable error);
+    }
+
+    /**
+     * Holder of the scheduler used for debouncing, which is only created when first needed.
+     */
+    private static final class DebounceScheduler {
+
+        static final ScheduledExecutorService INSTANCE = SharedExecutors.register(
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "BackgroundLoader");
+                thread.setDaemon(true);
+                return thread;
+            }));
+    }
+}
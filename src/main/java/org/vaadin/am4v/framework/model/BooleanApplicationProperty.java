@@ -0,0 +1,141 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+
+import org.vaadin.am4v.framework.Registration;
+
+import com.vaadin.data.Validator;
+
+/**
+ * A {@link PrimitiveApplicationProperty} specialized for {@code boolean} values, read and written through
+ * {@link #getBoolean()} and {@link #setBoolean(boolean)}. The value of the
+ * Vaadin {@link com.vaadin.data.Property Property} is of type {@link Boolean}.
+ */
+public class BooleanApplicationProperty extends PrimitiveApplicationProperty<Boolean,
+    BooleanApplicationProperty.BooleanValueChangeListener, BooleanApplicationProperty.BooleanValidator> {
+
+    private boolean value;
+
+    /**
+     * Creates a new writable property.
+     *
+     * @param value the initial value of the property.
+     */
+    public BooleanApplicationProperty(boolean value) {
+        this(value, false);
+    }
+
+    /**
+     * Creates a new property.
+     *
+     * @param value the initial value of the property.
+     * @param readOnly whether the property is read-only or writable.
+     */
+    public BooleanApplicationProperty(boolean value, boolean readOnly) {
+        super(value, Boolean.class, readOnly);
+        this.value = value;
+    }
+
+    /**
+     * Returns the value of the property.
+     *
+     * @return the value.
+     */
+    public boolean getBoolean() {
+        DependencyTracker.recordRead(this);
+        return value;
+    }
+
+    /**
+     * Sets the value of the property, notifying the listeners if the value changed.
+     *
+     * @param value the new value.
+     * @throws ReadOnlyException if the property is read-only.
+     */
+    public void setBoolean(boolean value) throws ReadOnlyException {
+        checkWritable();
+        if (this.value != value) {
+            this.value = value;
+            fireValueChange();
+        }
+    }
+
+    @Override
+    public Boolean getValue() {
+        return getBoolean();
+    }
+
+    @Override
+    void setBoxedValue(Boolean newValue) {
+        setBoolean(newValue);
+    }
+
+    /**
+     * Registers a listener to be notified when the value of this property changes.
+     *
+     * @param listener the listener to add.
+     * @return a registration for removing the listener (never {@code null}).
+     */
+    public Registration addBooleanValueChangeListener(BooleanValueChangeListener listener) {
+        return addPrimitiveValueChangeListener(listener);
+    }
+
+    /**
+     * Removes a listener previously added with {@link #addBooleanValueChangeListener(BooleanValueChangeListener)}.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeBooleanValueChangeListener(BooleanValueChangeListener listener) {
+        removePrimitiveValueChangeListener(listener);
+    }
+
+    @Override
+    void notifyPrimitiveListener(BooleanValueChangeListener listener) {
+        listener.onValueChange(this);
+    }
+
+    /**
+     * Adds a validator that validates the primitive value. The validator is run before any ordinary
+     * {@link Validator validators} when the {@link #getValidationResult() validation result} is computed.
+     *
+     * @param validator the validator to add.
+     * @return a registration for removing the validator (never {@code null}).
+     */
+    public Registration addBooleanValidator(BooleanValidator validator) {
+        return addPrimitiveValidator(validator);
+    }
+
+    @Override
+    ValidationResult validatePrimitiveValue(BooleanValidator validator) {
+        return validator.validate(value);
+    }
+
+    /**
+     * Listener notified when the value of an {@link BooleanApplicationProperty} changes.
+     */
+    @FunctionalInterface
+    public interface BooleanValueChangeListener extends Serializable {
+
+        /**
+         * Called when the value of the property has changed.
+         *
+         * @param property the property, whose {@link BooleanApplicationProperty#getBoolean()} returns the new value.
+         */
+        void onValueChange(BooleanApplicationProperty property);
+    }
+
+    /**
+     * Validator of the value of an {@link BooleanApplicationProperty}.
+     */
+    @FunctionalInterface
+    public interface BooleanValidator extends Serializable {
+
+        /**
+         * Validates the value.
+         *
+         * @param value the value to validate.
+         * @return the validation result (never {@code null}).
+         */
+        ValidationResult validate(boolean value);
+    }
+}
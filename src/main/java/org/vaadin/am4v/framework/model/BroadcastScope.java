@@ -0,0 +1,34 @@
+package org.vaadin.am4v.framework.model;
+
+/**
+ * Enumeration of the scopes that a message can be broadcast to.
+ *
+ * @see ApplicationModel#broadcastMessage(Object, BroadcastScope)
+ * @see MessageBus
+ */
+public enum BroadcastScope {
+
+    /**
+     * The message is delivered to all models in the model hierarchy of the broadcasting model. This is the scope
+     * used by {@link ApplicationModel#broadcastMessage(Object)}.
+     */
+    HIERARCHY,
+
+    /**
+     * The message is delivered to all model hierarchies that have joined the {@link MessageBus} with the same session
+     * key as the broadcasting model, typically all the UIs of the same {@link com.vaadin.server.VaadinSession}.
+     */
+    SESSION,
+
+    /**
+     * The message is delivered to all model hierarchies that have joined the {@link MessageBus}, i.e. all sessions in
+     * the JVM.
+     */
+    APPLICATION,
+
+    /**
+     * The message is delivered to all model hierarchies that have joined the {@link MessageBus} and also published
+     * through the {@link MessageTransport} of the bus to the other nodes of the cluster.
+     */
+    CLUSTER
+}
@@ -0,0 +1,66 @@
+package org.vaadin.am4v.framework.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registration of a message handler that only wants to see the latest message per key. Messages are held back while a
+ * {@link MessageCoalescingScope} is open and delivered when the scope is closed. If a message arrives outside of any
+ * scope, delivery is deferred using the {@link PushStrategy} of the model that registered the handler, which for the
+ * default strategy means when the current UI access is over.
+ */
+@SuppressWarnings("unchecked")
+class CoalescingMessageHandlerRegistration extends MessageHandlerRegistration {
+
+    private static final Object NO_KEY = new Object();
+
+    private final ApplicationModel owner;
+    private final ApplicationModel.MessageKeyExtractor<Object> keyExtractor;
+    private final Map<Object, PendingMessage> pendingMessages = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    /**
+     * Creates a new registration.
+     *
+     * @param messageClass the class of the messages to receive.
+     * @param messageHandler the message handler.
+     * @param owner the model that registered the handler.
+     * @param keyExtractor the function that extracts the coalescing key from a message, or {@code null} to coalesce
+     *        all messages.
+     */
+    CoalescingMessageHandlerRegistration(Class<?> messageClass, ApplicationModel.MessageHandler<?> messageHandler,
+        ApplicationModel owner, ApplicationModel.MessageKeyExtractor<?> keyExtractor) {
+        super(messageClass, messageHandler);
+        this.owner = owner;
+        this.keyExtractor = (ApplicationModel.MessageKeyExtractor<Object>) keyExtractor;
+    }
+
+    @Override
+    void handleMessage(ApplicationModel source, Object message) {
+        Object key = keyExtractor == null ? NO_KEY : keyExtractor.getKey(message);
+        // Remove first so that the latest message of a key also ends up last in delivery order
+        pendingMessages.remove(key);
+        pendingMessages.put(key, new PendingMessage(source, message));
+        if (!MessageCoalescingScope.enqueue(this) && !flushScheduled) {
+            flushScheduled = true;
+            owner.getPushStrategy().execute(this::flush);
+        }
+    }
+
+    /**
+     * Delivers all pending messages to the handler.
+     */
+    void flush() {
+        flushScheduled = false;
+        if (pendingMessages.isEmpty()) {
+            return;
+        }
+        List<PendingMessage> messages = new ArrayList<>(pendingMessages.values());
+        pendingMessages.clear();
+        for (PendingMessage pendingMessage : messages) {
+            super.handleMessage(pendingMessage.source, pendingMessage.message);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.vaadin.am4v.framework.Registration;
+
+/**
+ * A read-only {@link ApplicationProperty} whose value is derived from other application properties through an
+ * {@link Expression}. The properties read by the expression are tracked automatically, so there is no need to wire up
+ * any value change listeners by hand:
+ * <pre>
+ * public final ComputedProperty&lt;String&gt; title = new ComputedProperty&lt;&gt;(String.class,
+ *     () -&gt; selected.getValue() == null ? "No folder" : selected.getValue().getName());
+ * </pre>
+ * The value is computed lazily, when it is first read, and then cached until one of the properties the expression read
+ * last time changes. When that happens, the property does not recompute its value but only notifies its listeners
+ * (which usually read the new value right away). A computed property that is neither read nor observed is never
+ * computed at all.
+ * <p>
+ * The expression must only depend on application properties (including other computed properties) and must not have
+ * any side effects. The dependencies are registered using weak references, so a computed property does not prevent
+ * its model from being garbage collected even if it depends on properties of longer lived models. Since weak
+ * references are not serialized, a computed property whose value was cached is computed again after deserialization.
+ */
+public class ComputedProperty<T> extends ApplicationProperty<T> {
+
+    private final Expression<T> expression;
+    private final Dependent invalidator = dependency -> invalidate();
+    private transient List<Registration> dependencyRegistrations;
+    private boolean valid;
+    private T value;
+
+    /**
+     * Creates a new computed property.
+     *
+     * @param type the type of the property value.
+     * @param expression the expression that computes the value.
+     */
+    public ComputedProperty(Class<T> type, Expression<T> expression) {
+        super(null, type, true);
+        this.expression = Objects.requireNonNull(expression, "expression must not be null");
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (valid) {
+            // The weak registrations with the dependencies are not serialized. Compute the value again once the whole
+            // object graph has been read, so that the listeners are notified of changes even if nobody reads it first.
+            valid = false;
+            in.registerValidation(this::recompute, 0);
+        }
+    }
+
+    @Override
+    public T getValue() {
+        DependencyTracker.recordRead(this);
+        if (!valid) {
+            recompute();
+        }
+        return value;
+    }
+
+    /**
+     * Always throws an exception, since the value of a computed property cannot be set.
+     */
+    @Override
+    public void setValue(T newValue) throws ReadOnlyException {
+        if (expression == null) {
+            // Called by the constructor of ObjectProperty
+            return;
+        }
+        throw new ReadOnlyException("The value of a computed property cannot be set");
+    }
+
+    /**
+     * Checks whether the cached value is up to date.
+     *
+     * @return true if the value is cached, false if it will be computed on the next read.
+     */
+    public boolean isUpToDate() {
+        return valid;
+    }
+
+    /**
+     * Returns the cached value without computing it, even if it is out of date.
+     *
+     * @return the cached value, possibly {@code null}.
+     */
+    T getCachedValue() {
+        return value;
+    }
+
+    private void recompute() {
+        releaseDependencies();
+        List<Registration> registrations = new ArrayList<>();
+        try {
+            for (ApplicationProperty<?> dependency : DependencyTracker.track(() -> value = expression.compute())) {
+                if (dependency != this) {
+                    registrations.add(dependency.addWeakDependent(invalidator));
+                }
+            }
+            valid = true;
+        } finally {
+            dependencyRegistrations = registrations;
+        }
+    }
+
+    private void releaseDependencies() {
+        if (dependencyRegistrations != null) {
+            dependencyRegistrations.forEach(Registration::remove);
+            dependencyRegistrations = null;
+        }
+    }
+
+    private void invalidate() {
+        if (valid) {
+            valid = false;
+            fireValueChange();
+        }
+    }
+
+    /**
+     * Functional interface for the expression that computes the value of a {@link ComputedProperty}.
+     *
+     * @param <T> the type of the value.
+     */
+    @FunctionalInterface
+    public interface Expression<T> extends Serializable {
+
+        /**
+         * Computes the value. Any application properties read by this method become dependencies of the computed
+         * property.
+         *
+         * @return the computed value.
+         */
+        T compute();
+    }
+}
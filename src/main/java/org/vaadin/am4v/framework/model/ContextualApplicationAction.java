@@ -38,12 +38,13 @@ public class ContextualApplicationAction<C> extends ApplicationAction {
 
     /**
      * Performs the action. If a {@link ContextualActionWorker} has been set, it will be executed. Otherwise, this
-     * method will throw an exception and will need to be overridden.
+     * method will throw an exception and will need to be overridden. Messages broadcast by the worker to coalescing
+     * message handlers are delivered when the worker has completed.
      *
      * @param context the context or {@code null} if no context is available.
      */
     public void run(C context) {
-        worker.execute(this, context);
+        MessageCoalescingScope.run(() -> worker.execute(this, context));
     }
 
     /**
@@ -0,0 +1,32 @@
+package org.vaadin.am4v.framework.model;
+
+import com.vaadin.ui.UI;
+
+/**
+ * The {@link PushStrategy#getDefault() default push strategy}, which pushes to the current {@link UI}. Since there is
+ * no current UI in background threads, code that passes jobs to the strategy from a background thread must
+ * {@link #bindToCurrentUI() bind} it to the UI while still in the UI thread.
+ */
+enum CurrentUIPushStrategy implements PushStrategy {
+
+    INSTANCE;
+
+    @Override
+    public void execute(Runnable job) {
+        currentUI().access(job);
+    }
+
+    @Override
+    public PushStrategy bindToCurrentUI() {
+        return PushStrategy.forUI(currentUI());
+    }
+
+    private static UI currentUI() {
+        UI ui = UI.getCurrent();
+        if (ui == null) {
+            throw new IllegalStateException("There is no current UI to push to. Use PushStrategy.forUI(UI) or another "
+                + "strategy that does not depend on the current UI when pushing from background threads.");
+        }
+        return ui;
+    }
+}
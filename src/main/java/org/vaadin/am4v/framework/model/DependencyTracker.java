@@ -0,0 +1,54 @@
+package org.vaadin.am4v.framework.model;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Thread bound tracker that records which {@link ApplicationProperty application properties} are read while a
+ * {@link ComputedProperty} is being computed. Computations can be nested, in which case each computation only records
+ * the properties it reads directly (a computed property read by another computation is recorded as a property like
+ * any other).
+ */
+final class DependencyTracker {
+
+    private static final ThreadLocal<DependencyTracker> CURRENT = new ThreadLocal<>();
+
+    private final Set<ApplicationProperty<?>> dependencies = new LinkedHashSet<>();
+
+    private DependencyTracker() {
+    }
+
+    /**
+     * Records that the specified property has been read by the current computation, if any.
+     *
+     * @param property the property that has been read.
+     */
+    static void recordRead(ApplicationProperty<?> property) {
+        DependencyTracker tracker = CURRENT.get();
+        if (tracker != null) {
+            tracker.dependencies.add(property);
+        }
+    }
+
+    /**
+     * Runs the specified computation and returns the properties it read.
+     *
+     * @param computation the computation to run.
+     * @return the properties read by the computation, in the order they were first read.
+     */
+    static Set<ApplicationProperty<?>> track(Runnable computation) {
+        DependencyTracker previous = CURRENT.get();
+        DependencyTracker tracker = new DependencyTracker();
+        CURRENT.set(tracker);
+        try {
+            computation.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+        return tracker.dependencies;
+    }
+}
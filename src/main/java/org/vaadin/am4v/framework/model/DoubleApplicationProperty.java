@@ -0,0 +1,141 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+
+import org.vaadin.am4v.framework.Registration;
+
+import com.vaadin.data.Validator;
+
+/**
+ * A {@link PrimitiveApplicationProperty} specialized for {@code double} values, read and written through
+ * {@link #getDouble()} and {@link #setDouble(double)}. The value of the
+ * Vaadin {@link com.vaadin.data.Property Property} is of type {@link Double}.
+ */
+public class DoubleApplicationProperty extends PrimitiveApplicationProperty<Double,
+    DoubleApplicationProperty.DoubleValueChangeListener, DoubleApplicationProperty.DoubleValidator> {
+
+    private double value;
+
+    /**
+     * Creates a new writable property.
+     *
+     * @param value the initial value of the property.
+     */
+    public DoubleApplicationProperty(double value) {
+        this(value, false);
+    }
+
+    /**
+     * Creates a new property.
+     *
+     * @param value the initial value of the property.
+     * @param readOnly whether the property is read-only or writable.
+     */
+    public DoubleApplicationProperty(double value, boolean readOnly) {
+        super(value, Double.class, readOnly);
+        this.value = value;
+    }
+
+    /**
+     * Returns the value of the property.
+     *
+     * @return the value.
+     */
+    public double getDouble() {
+        DependencyTracker.recordRead(this);
+        return value;
+    }
+
+    /**
+     * Sets the value of the property, notifying the listeners if the value changed.
+     *
+     * @param value the new value.
+     * @throws ReadOnlyException if the property is read-only.
+     */
+    public void setDouble(double value) throws ReadOnlyException {
+        checkWritable();
+        if (Double.doubleToLongBits(this.value) != Double.doubleToLongBits(value)) {
+            this.value = value;
+            fireValueChange();
+        }
+    }
+
+    @Override
+    public Double getValue() {
+        return getDouble();
+    }
+
+    @Override
+    void setBoxedValue(Double newValue) {
+        setDouble(newValue);
+    }
+
+    /**
+     * Registers a listener to be notified when the value of this property changes.
+     *
+     * @param listener the listener to add.
+     * @return a registration for removing the listener (never {@code null}).
+     */
+    public Registration addDoubleValueChangeListener(DoubleValueChangeListener listener) {
+        return addPrimitiveValueChangeListener(listener);
+    }
+
+    /**
+     * Removes a listener previously added with {@link #addDoubleValueChangeListener(DoubleValueChangeListener)}.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeDoubleValueChangeListener(DoubleValueChangeListener listener) {
+        removePrimitiveValueChangeListener(listener);
+    }
+
+    @Override
+    void notifyPrimitiveListener(DoubleValueChangeListener listener) {
+        listener.onValueChange(this);
+    }
+
+    /**
+     * Adds a validator that validates the primitive value. The validator is run before any ordinary
+     * {@link Validator validators} when the {@link #getValidationResult() validation result} is computed.
+     *
+     * @param validator the validator to add.
+     * @return a registration for removing the validator (never {@code null}).
+     */
+    public Registration addDoubleValidator(DoubleValidator validator) {
+        return addPrimitiveValidator(validator);
+    }
+
+    @Override
+    ValidationResult validatePrimitiveValue(DoubleValidator validator) {
+        return validator.validate(value);
+    }
+
+    /**
+     * Listener notified when the value of an {@link DoubleApplicationProperty} changes.
+     */
+    @FunctionalInterface
+    public interface DoubleValueChangeListener extends Serializable {
+
+        /**
+         * Called when the value of the property has changed.
+         *
+         * @param property the property, whose {@link DoubleApplicationProperty#getDouble()} returns the new value.
+         */
+        void onValueChange(DoubleApplicationProperty property);
+    }
+
+    /**
+     * Validator of the value of an {@link DoubleApplicationProperty}.
+     */
+    @FunctionalInterface
+    public interface DoubleValidator extends Serializable {
+
+        /**
+         * Validates the value.
+         *
+         * @param value the value to validate.
+         * @return the validation result (never {@code null}).
+         */
+        ValidationResult validate(double value);
+    }
+}
@@ -0,0 +1,88 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Strategy for running background work, such as blocking service calls, from within application models. By
+ * abstracting this away, different strategies can be plugged in for e.g. testing, where the
+ * {@link #synchronous() synchronous strategy} makes the background work deterministic.
+ * <p>
+ * Models normally do not use the strategy directly, but through
+ * {@link ApplicationModel#executeInBackground(java.util.function.Supplier, java.util.function.Consumer)}, which also
+ * passes the result back to the UI using the {@link PushStrategy}.
+ */
+public interface ExecutionStrategy extends Serializable {
+
+    /**
+     * Runs the given task in the background.
+     *
+     * @param task the task to run.
+     * @throws java.util.concurrent.RejectedExecutionException if the task cannot be accepted, e.g. because the queue
+     *         of a bounded thread pool is full.
+     */
+    void execute(Runnable task);
+
+    /**
+     * Returns the default execution strategy, which runs the tasks in a shared, bounded thread pool of daemon threads.
+     * The pool has two threads per available processor (but at least four) and queues up to 1000 tasks. The pool is
+     * one of the {@link org.vaadin.am4v.framework.SharedExecutors shared executors} that should be shut down when the
+     * application is undeployed.
+     *
+     * @return the default execution strategy.
+     */
+    static ExecutionStrategy getDefault() {
+        return (ExecutionStrategy) task -> ExecutorExecutionStrategy.DefaultPool.INSTANCE.execute(task);
+    }
+
+    /**
+     * Returns an execution strategy that runs the tasks directly in the calling thread. This is mainly useful for
+     * testing.
+     *
+     * @return the synchronous execution strategy.
+     */
+    static ExecutionStrategy synchronous() {
+        return (ExecutionStrategy) Runnable::run;
+    }
+
+    /**
+     * Returns an execution strategy that runs the tasks in a new thread pool with the specified bounds. Tasks that
+     * arrive when all the threads are busy and the queue is full are rejected. The pool should normally be shared by
+     * all the models of the application, so this method should only be called once.
+     *
+     * @param maxThreads the maximum number of threads.
+     * @param queueCapacity the maximum number of tasks waiting for a thread.
+     * @return the execution strategy.
+     */
+    static ExecutionStrategy boundedThreadPool(int maxThreads, int queueCapacity) {
+        ThreadPoolExecutor executor = ExecutorExecutionStrategy.createBoundedPool(maxThreads, queueCapacity);
+        return forExecutor(executor);
+    }
+
+    /**
+     * Returns an execution strategy that runs every task in a new virtual thread. Virtual threads are only available
+     * on JDK 21 and newer; on older JDKs the {@link #getDefault() default strategy} is used instead. Since virtual
+     * threads are cheap, this is the preferred strategy for tasks that mostly wait for I/O.
+     *
+     * @return the execution strategy.
+     */
+    static ExecutionStrategy virtualThreads() {
+        if (ExecutorExecutionStrategy.VirtualThreads.INSTANCE == null) {
+            return getDefault();
+        }
+        return (ExecutionStrategy) task -> ExecutorExecutionStrategy.VirtualThreads.INSTANCE.execute(task);
+    }
+
+    /**
+     * Returns an execution strategy that passes the tasks to the specified executor. The executor is not serialized
+     * together with the session. If the strategy is deserialized, the {@link #getDefault() default strategy} is used
+     * instead.
+     *
+     * @param executor the executor to use.
+     * @return the execution strategy.
+     */
+    static ExecutionStrategy forExecutor(Executor executor) {
+        return new ExecutorExecutionStrategy(executor);
+    }
+}
@@ -0,0 +1,102 @@
+package org.vaadin.am4v.framework.model;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.vaadin.am4v.framework.SharedExecutors;
+
+/**
+ * {@link ExecutionStrategy} that passes the tasks to an {@link Executor}. This class also holds the shared executors
+ * of the built-in strategies.
+ */
+final class ExecutorExecutionStrategy implements ExecutionStrategy {
+
+    /**
+     * The queue capacity of the pool of the {@link ExecutionStrategy#getDefault() default strategy}.
+     */
+    static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private final transient Executor executor;
+
+    ExecutorExecutionStrategy(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (executor == null) {
+            DefaultPool.INSTANCE.execute(task);
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    static ThreadPoolExecutor createBoundedPool(int maxThreads, int queueCapacity) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be positive");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new DaemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Holder of the pool of the default strategy, which is only created when first needed.
+     */
+    static final class DefaultPool {
+
+        static final Executor INSTANCE = SharedExecutors.register(createBoundedPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2), DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Holder of the virtual thread executor. The executor is looked up reflectively, since the framework is compiled
+     * for Java 8 (a multi-release JAR would not help here, as the classes of a web application are normally loaded from
+     * {@code WEB-INF/classes}).
+     */
+    static final class VirtualThreads {
+
+        static final Executor INSTANCE = createExecutor();
+
+        private static Executor createExecutor() {
+            try {
+                return SharedExecutors.register(
+                    (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+            } catch (NoSuchMethodException ex) {
+                return null;
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                Logger.getLogger(VirtualThreads.class.getName()).log(Level.WARNING,
+                    "Could not create virtual thread executor", ex);
+                return null;
+            }
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+        private final String prefix = "am4v-background-" + POOL_NUMBER.incrementAndGet() + "-";
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
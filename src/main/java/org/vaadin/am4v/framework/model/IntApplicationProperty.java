@@ -0,0 +1,141 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+
+import org.vaadin.am4v.framework.Registration;
+
+import com.vaadin.data.Validator;
+
+/**
+ * A {@link PrimitiveApplicationProperty} specialized for {@code int} values, read and written through
+ * {@link #getInt()} and {@link #setInt(int)}. The value of the
+ * Vaadin {@link com.vaadin.data.Property Property} is of type {@link Integer}.
+ */
+public class IntApplicationProperty extends PrimitiveApplicationProperty<Integer,
+    IntApplicationProperty.IntValueChangeListener, IntApplicationProperty.IntValidator> {
+
+    private int value;
+
+    /**
+     * Creates a new writable property.
+     *
+     * @param value the initial value of the property.
+     */
+    public IntApplicationProperty(int value) {
+        this(value, false);
+    }
+
+    /**
+     * Creates a new property.
+     *
+     * @param value the initial value of the property.
+     * @param readOnly whether the property is read-only or writable.
+     */
+    public IntApplicationProperty(int value, boolean readOnly) {
+        super(value, Integer.class, readOnly);
+        this.value = value;
+    }
+
+    /**
+     * Returns the value of the property.
+     *
+     * @return the value.
+     */
+    public int getInt() {
+        DependencyTracker.recordRead(this);
+        return value;
+    }
+
+    /**
+     * Sets the value of the property, notifying the listeners if the value changed.
+     *
+     * @param value the new value.
+     * @throws ReadOnlyException if the property is read-only.
+     */
+    public void setInt(int value) throws ReadOnlyException {
+        checkWritable();
+        if (this.value != value) {
+            this.value = value;
+            fireValueChange();
+        }
+    }
+
+    @Override
+    public Integer getValue() {
+        return getInt();
+    }
+
+    @Override
+    void setBoxedValue(Integer newValue) {
+        setInt(newValue);
+    }
+
+    /**
+     * Registers a listener to be notified when the value of this property changes.
+     *
+     * @param listener the listener to add.
+     * @return a registration for removing the listener (never {@code null}).
+     */
+    public Registration addIntValueChangeListener(IntValueChangeListener listener) {
+        return addPrimitiveValueChangeListener(listener);
+    }
+
+    /**
+     * Removes a listener previously added with {@link #addIntValueChangeListener(IntValueChangeListener)}.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeIntValueChangeListener(IntValueChangeListener listener) {
+        removePrimitiveValueChangeListener(listener);
+    }
+
+    @Override
+    void notifyPrimitiveListener(IntValueChangeListener listener) {
+        listener.onValueChange(this);
+    }
+
+    /**
+     * Adds a validator that validates the primitive value. The validator is run before any ordinary
+     * {@link Validator validators} when the {@link #getValidationResult() validation result} is computed.
+     *
+     * @param validator the validator to add.
+     * @return a registration for removing the validator (never {@code null}).
+     */
+    public Registration addIntValidator(IntValidator validator) {
+        return addPrimitiveValidator(validator);
+    }
+
+    @Override
+    ValidationResult validatePrimitiveValue(IntValidator validator) {
+        return validator.validate(value);
+    }
+
+    /**
+     * Listener notified when the value of an {@link IntApplicationProperty} changes.
+     */
+    @FunctionalInterface
+    public interface IntValueChangeListener extends Serializable {
+
+        /**
+         * Called when the value of the property has changed.
+         *
+         * @param property the property, whose {@link IntApplicationProperty#getInt()} returns the new value.
+         */
+        void onValueChange(IntApplicationProperty property);
+    }
+
+    /**
+     * Validator of the value of an {@link IntApplicationProperty}.
+     */
+    @FunctionalInterface
+    public interface IntValidator extends Serializable {
+
+        /**
+         * Validates the value.
+         *
+         * @param value the value to validate.
+         * @return the validation result (never {@code null}).
+         */
+        ValidationResult validate(int value);
+    }
+}
@@ -0,0 +1,201 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.vaadin.am4v.framework.Registration;
+
+/**
+ * Copy-on-write array of listeners (or handlers) used by {@link ApplicationModel}, {@link ApplicationProperty} and
+ * {@link ApplicationAction}. Adding or removing a listener replaces the backing array, whereas notifying the listeners
+ * only reads the current array. This means that notification does not allocate anything and that listeners may safely
+ * add or remove listeners while they are being notified (the changes will take effect on the next notification).
+ * <p>
+ * Like {@link java.util.List}, the array may contain the same listener more than once.
+ * <p>
+ * Listeners can also be {@link #addWeak(Object) added} using weak references, in the same spirit as
+ * {@link org.vaadin.am4v.framework.model.experimental.WeakOneWayProperty}. Such listeners do not prevent their owners
+ * from being garbage collected and are removed automatically the next time the listeners are notified after the
+ * owner has been collected. Weak references are not serialized, so weak listeners are lost when the array is
+ * deserialized.
+ */
+final class ListenerArray<L> implements Serializable {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private volatile Object[] listeners = EMPTY;
+
+    /**
+     * Adds the specified listener to the end of the array.
+     *
+     * @param listener the listener to add (never {@code null}).
+     * @return a registration that removes exactly this entry from the array.
+     */
+    Registration add(L listener) {
+        Objects.requireNonNull(listener);
+        return addEntry(listener);
+    }
+
+    /**
+     * Adds the specified listener to the end of the array using a weak reference.
+     *
+     * @param listener the listener to add (never {@code null}).
+     * @return a registration that removes exactly this entry from the array.
+     */
+    Registration addWeak(L listener) {
+        Objects.requireNonNull(listener);
+        return addEntry(new WeakEntry(listener));
+    }
+
+    private synchronized Registration addEntry(Object entry) {
+        Object[] current = listeners;
+        Object[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = entry;
+        listeners = updated;
+        return () -> removeEntry(entry);
+    }
+
+    /**
+     * Removes the first occurrence of the specified listener from the array.
+     *
+     * @param listener the listener to remove.
+     * @return true if the listener was removed, false if it was not found.
+     */
+    synchronized boolean remove(L listener) {
+        Object[] current = listeners;
+        for (int i = 0; i < current.length; ++i) {
+            if (matches(current[i], listener)) {
+                removeAt(current, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void removeEntry(Object entry) {
+        Object[] current = listeners;
+        for (int i = 0; i < current.length; ++i) {
+            if (current[i] == entry) {
+                removeAt(current, i);
+                return;
+            }
+        }
+    }
+
+    private void removeAt(Object[] current, int i) {
+        if (current.length == 1) {
+            listeners = EMPTY;
+        } else {
+            Object[] updated = new Object[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, i);
+            System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+            listeners = updated;
+        }
+    }
+
+    private static boolean matches(Object entry, Object listener) {
+        if (entry instanceof WeakEntry) {
+            Object referent = ((WeakEntry) entry).get();
+            return referent != null && referent.equals(listener);
+        }
+        return entry.equals(listener);
+    }
+
+    /**
+     * Removes all listeners from the array.
+     */
+    synchronized void clear() {
+        listeners = EMPTY;
+    }
+
+    /**
+     * Checks whether the specified listener is in the array.
+     *
+     * @param listener the listener to look for.
+     * @return true if the listener is found, false otherwise.
+     */
+    boolean contains(L listener) {
+        for (Object l : listeners) {
+            if (matches(l, listener)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the array is empty.
+     *
+     * @return true if there are no listeners, false otherwise.
+     */
+    boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    /**
+     * Returns a snapshot of the listeners. The returned array is shared and must not be modified by the caller. Weak
+     * listeners are returned as they are stored internally, so this method should only be used with arrays that
+     * contain no weak listeners.
+     *
+     * @return an array of listeners, possibly empty (never {@code null}).
+     */
+    Object[] toArray() {
+        return listeners;
+    }
+
+    /**
+     * Notifies all the listeners currently in the array. To keep notification allocation free, {@code notification}
+     * should be a non-capturing lambda or method reference (e.g. {@code EnabledChangeListener::onEnabledChange}), which
+     * the JVM only instantiates once.
+     *
+     * @param notification the notification to deliver to each listener.
+     * @param source the source to pass to the notification.
+     */
+    @SuppressWarnings("unchecked")
+    <S> void fire(Notification<? super L, ? super S> notification, S source) {
+        for (Object listener : listeners) {
+            if (listener instanceof WeakEntry) {
+                Object referent = ((WeakEntry) listener).get();
+                if (referent == null) {
+                    removeEntry(listener);
+                    continue;
+                }
+                listener = referent;
+            }
+            notification.deliver((L) listener, source);
+        }
+    }
+
+    /**
+     * Functional interface for delivering a notification to a single listener.
+     */
+    @FunctionalInterface
+    interface Notification<L, S> extends Serializable {
+
+        /**
+         * Delivers the notification to the specified listener.
+         *
+         * @param listener the listener to notify.
+         * @param source the source of the notification.
+         */
+        void deliver(L listener, S source);
+    }
+
+    /**
+     * Entry of a weakly referenced listener. The reference itself is not serializable.
+     */
+    private static final class WeakEntry implements Serializable {
+
+        private final transient WeakReference<Object> reference;
+
+        WeakEntry(Object listener) {
+            reference = new WeakReference<>(listener);
+        }
+
+        Object get() {
+            return reference == null ? null : reference.get();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+
+import org.vaadin.am4v.framework.Registration;
+
+import com.vaadin.data.Validator;
+
+/**
+ * A {@link PrimitiveApplicationProperty} specialized for {@code long} values, read and written through
+ * {@link #getLong()} and {@link #setLong(long)}. The value of the
+ * Vaadin {@link com.vaadin.data.Property Property} is of type {@link Long}.
+ */
+public class LongApplicationProperty extends PrimitiveApplicationProperty<Long,
+    LongApplicationProperty.LongValueChangeListener, LongApplicationProperty.LongValidator> {
+
+    private long value;
+
+    /**
+     * Creates a new writable property.
+     *
+     * @param value the initial value of the property.
+     */
+    public LongApplicationProperty(long value) {
+        this(value, false);
+    }
+
+    /**
+     * Creates a new property.
+     *
+     * @param value the initial value of the property.
+     * @param readOnly whether the property is read-only or writable.
+     */
+    public LongApplicationProperty(long value, boolean readOnly) {
+        super(value, Long.class, readOnly);
+        this.value = value;
+    }
+
+    /**
+     * Returns the value of the property.
+     *
+     * @return the value.
+     */
+    public long getLong() {
+        DependencyTracker.recordRead(this);
+        return value;
+    }
+
+    /**
+     * Sets the value of the property, notifying the listeners if the value changed.
+     *
+     * @param value the new value.
+     * @throws ReadOnlyException if the property is read-only.
+     */
+    public void setLong(long value) throws ReadOnlyException {
+        checkWritable();
+        if (this.value != value) {
+            this.value = value;
+            fireValueChange();
+        }
+    }
+
+    @Override
+    public Long getValue() {
+        return getLong();
+    }
+
+    @Override
+    void setBoxedValue(Long newValue) {
+        setLong(newValue);
+    }
+
+    /**
+     * Registers a listener to be notified when the value of this property changes.
+     *
+     * @param listener the listener to add.
+     * @return a registration for removing the listener (never {@code null}).
+     */
+    public Registration addLongValueChangeListener(LongValueChangeListener listener) {
+        return addPrimitiveValueChangeListener(listener);
+    }
+
+    /**
+     * Removes a listener previously added with {@link #addLongValueChangeListener(LongValueChangeListener)}.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeLongValueChangeListener(LongValueChangeListener listener) {
+        removePrimitiveValueChangeListener(listener);
+    }
+
+    @Override
+    void notifyPrimitiveListener(LongValueChangeListener listener) {
+        listener.onValueChange(this);
+    }
+
+    /**
+     * Adds a validator that validates the primitive value. The validator is run before any ordinary
+     * {@link Validator validators} when the {@link #getValidationResult() validation result} is computed.
+     *
+     * @param validator the validator to add.
+     * @return a registration for removing the validator (never {@code null}).
+     */
+    public Registration addLongValidator(LongValidator validator) {
+        return addPrimitiveValidator(validator);
+    }
+
+    @Override
+    ValidationResult validatePrimitiveValue(LongValidator validator) {
+        return validator.validate(value);
+    }
+
+    /**
+     * Listener notified when the value of an {@link LongApplicationProperty} changes.
+     */
+    @FunctionalInterface
+    public interface LongValueChangeListener extends Serializable {
+
+        /**
+         * Called when the value of the property has changed.
+         *
+         * @param property the property, whose {@link LongApplicationProperty#getLong()} returns the new value.
+         */
+        void onValueChange(LongApplicationProperty property);
+    }
+
+    /**
+     * Validator of the value of an {@link LongApplicationProperty}.
+     */
+    @FunctionalInterface
+    public interface LongValidator extends Serializable {
+
+        /**
+         * Validates the value.
+         *
+         * @param value the value to validate.
+         * @return the validation result (never {@code null}).
+         */
+        ValidationResult validate(long value);
+    }
+}
@@ -0,0 +1,43 @@
+package org.vaadin.am4v.framework.model;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory implementation of {@link MessageTransport} that passes messages directly between the message buses
+ * connected to it. This makes it possible to simulate a cluster with several {@link MessageBus} instances in a single
+ * JVM, e.g. in tests. The messages are not copied, so all the buses will receive the same instance.
+ */
+public class LoopbackMessageTransport implements MessageTransport {
+
+    private final CopyOnWriteArrayList<LoopbackConnection> connections = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Connection connect(Receiver receiver) {
+        LoopbackConnection connection = new LoopbackConnection(receiver);
+        connections.add(connection);
+        return connection;
+    }
+
+    private class LoopbackConnection implements Connection {
+
+        private final Receiver receiver;
+
+        LoopbackConnection(Receiver receiver) {
+            this.receiver = receiver;
+        }
+
+        @Override
+        public void publish(Object key, Object message) {
+            for (LoopbackConnection connection : connections) {
+                if (connection != this) {
+                    connection.receiver.receive(key, message);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            connections.remove(this);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.vaadin.am4v.framework.model;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A message bus that carries messages between model hierarchies, making it possible to broadcast messages to all the
+ * UIs of a session, all sessions in the JVM or all nodes in a cluster. Root models join the bus using
+ * {@link ApplicationModel#joinMessageBus(MessageBus, Object)}, typically with the
+ * {@link com.vaadin.server.VaadinSession} as the session key.
+ * <p>
+ * Messages are delivered into each target hierarchy through the {@link PushStrategy} of its root model. The strategy
+ * is {@link PushStrategy#bindToCurrentUI() bound} when the root model joins the bus, since messages are delivered from
+ * the thread of the sender, where the current UI (if any) is not the UI of the target hierarchy.
+ * The bus does not use any global lock: the hierarchies are kept in a concurrent map of copy-on-write arrays, and the
+ * fan-out to each session can optionally be handed over to an executor.
+ *
+ * @see BroadcastScope
+ */
+public class MessageBus {
+
+    private static final MessageBus DEFAULT = new MessageBus();
+
+    private final ConcurrentMap<Object, ListenerArray<ApplicationModel>> sessions = new ConcurrentHashMap<>();
+    private final Executor fanOutExecutor;
+    private volatile MessageTransport.Connection transportConnection;
+
+    /**
+     * Creates a new message bus that delivers messages to the other sessions in the broadcasting thread.
+     */
+    public MessageBus() {
+        this(Runnable::run);
+    }
+
+    /**
+     * Creates a new message bus that uses the specified executor to deliver messages to the sessions. The delivery to a
+     * single session is one task, so the executor decides how many sessions are served in parallel.
+     *
+     * @param fanOutExecutor the executor to use.
+     */
+    public MessageBus(Executor fanOutExecutor) {
+        this.fanOutExecutor = Objects.requireNonNull(fanOutExecutor, "fanOutExecutor must not be null");
+    }
+
+    /**
+     * Returns the default message bus of the JVM (or rather the class loader).
+     *
+     * @return the default message bus.
+     */
+    public static MessageBus getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Sets the transport to use for {@link BroadcastScope#CLUSTER cluster scoped} messages, replacing any previous
+     * transport.
+     *
+     * @param transport the transport, or {@code null} to only deliver messages within this JVM.
+     */
+    public synchronized void setTransport(MessageTransport transport) {
+        if (transportConnection != null) {
+            transportConnection.close();
+            transportConnection = null;
+        }
+        if (transport != null) {
+            transportConnection = transport.connect((key, message) -> deliver(null, null, key, message));
+        }
+    }
+
+    /**
+     * Returns the number of root models that have joined this bus.
+     *
+     * @return the number of members.
+     */
+    public int getMemberCount() {
+        int count = 0;
+        for (ListenerArray<ApplicationModel> members : sessions.values()) {
+            count += members.toArray().length;
+        }
+        return count;
+    }
+
+    void join(Object sessionKey, ApplicationModel root) {
+        sessions.compute(sessionKey, (key, members) -> {
+            if (members == null) {
+                members = new ListenerArray<>();
+            }
+            members.add(root);
+            return members;
+        });
+    }
+
+    void leave(Object sessionKey, ApplicationModel root) {
+        sessions.computeIfPresent(sessionKey, (key, members) -> {
+            members.remove(root);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    /**
+     * Publishes a message to the specified scope.
+     *
+     * @param scope the scope, which must not be {@link BroadcastScope#HIERARCHY}.
+     * @param sessionKey the session key of the broadcasting hierarchy.
+     * @param origin the root model of the broadcasting hierarchy, which will not receive the message.
+     * @param key the key of the message, or {@code null} if it has no key.
+     * @param message the message.
+     */
+    void publish(BroadcastScope scope, Object sessionKey, ApplicationModel origin, Object key, Object message) {
+        switch (scope) {
+            case SESSION:
+                ListenerArray<ApplicationModel> members = sessions.get(sessionKey);
+                if (members != null) {
+                    deliver(members, origin, key, message);
+                }
+                break;
+            case CLUSTER:
+                MessageTransport.Connection connection = transportConnection;
+                if (connection != null) {
+                    connection.publish(key, message);
+                }
+                deliver(null, origin, key, message);
+                break;
+            case APPLICATION:
+                deliver(null, origin, key, message);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported scope: " + scope);
+        }
+    }
+
+    private void deliver(ListenerArray<ApplicationModel> members, ApplicationModel origin, Object key,
+        Object message) {
+        if (members == null) {
+            for (ListenerArray<ApplicationModel> sessionMembers : sessions.values()) {
+                deliver(sessionMembers, origin, key, message);
+            }
+        } else {
+            fanOutExecutor.execute(() -> {
+                for (Object member : members.toArray()) {
+                    if (member != origin) {
+                        ApplicationModel root = (ApplicationModel) member;
+                        PushStrategy pushStrategy = root.getMessageBusPushStrategy();
+                        if (pushStrategy == null) {
+                            // Left the bus after the members were read
+                            continue;
+                        }
+                        try {
+                            pushStrategy.execute(() -> root.receiveBusMessage(key, message));
+                        } catch (RuntimeException ex) {
+                            // One broken UI (e.g. one that has already been detached) must not stop the fan-out
+                            Logger.getLogger(MessageBus.class.getName()).log(Level.WARNING,
+                                "Could not deliver message " + message, ex);
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
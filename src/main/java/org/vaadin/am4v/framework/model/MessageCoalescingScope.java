@@ -0,0 +1,84 @@
+package org.vaadin.am4v.framework.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Thread bound scope within which messages sent to {@link CoalescingMessageHandlerRegistration coalescing message
+ * handlers} are held back and merged. When the outermost scope is closed, each coalescing handler receives the merged
+ * messages once. Scopes are opened by {@link ApplicationAction}s while they run and by
+ * {@link ApplicationModel#broadcastMessages(Iterable)}, which in practice means that messages are coalesced within the
+ * request or UI access that triggered them.
+ */
+final class MessageCoalescingScope {
+
+    private static final ThreadLocal<MessageCoalescingScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<CoalescingMessageHandlerRegistration> pendingRegistrations = new LinkedHashSet<>();
+    private int depth;
+
+    private MessageCoalescingScope() {
+    }
+
+    /**
+     * Runs the specified work inside a coalescing scope, joining the current scope if there is one.
+     *
+     * @param work the work to run.
+     */
+    static void run(Runnable work) {
+        MessageCoalescingScope scope = CURRENT.get();
+        if (scope == null) {
+            scope = new MessageCoalescingScope();
+            CURRENT.set(scope);
+        }
+        scope.depth++;
+        try {
+            work.run();
+        } finally {
+            if (scope.depth == 1) {
+                try {
+                    scope.flush();
+                } finally {
+                    CURRENT.remove();
+                }
+            }
+            scope.depth--;
+        }
+    }
+
+    /**
+     * Adds the specified registration to the current scope so that it will be flushed when the scope is closed.
+     *
+     * @param registration the registration that has pending messages.
+     * @return true if the registration was added to a scope, false if there is no current scope.
+     */
+    static boolean enqueue(CoalescingMessageHandlerRegistration registration) {
+        MessageCoalescingScope scope = CURRENT.get();
+        if (scope == null) {
+            return false;
+        }
+        scope.pendingRegistrations.add(registration);
+        return true;
+    }
+
+    private void flush() {
+        // Handlers may broadcast new messages while being flushed, so keep going until nothing is pending.
+        RuntimeException firstError = null;
+        while (!pendingRegistrations.isEmpty()) {
+            Iterator<CoalescingMessageHandlerRegistration> it = pendingRegistrations.iterator();
+            CoalescingMessageHandlerRegistration registration = it.next();
+            it.remove();
+            try {
+                registration.flush();
+            } catch (RuntimeException ex) {
+                if (firstError == null) {
+                    firstError = ex;
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+
+/**
+ * A single registration of a message handler for a particular message class. Two registrations are equal if they
+ * have the same message class and handler, which is what makes it possible to unregister a handler by creating an
+ * equal registration.
+ *
+ * @see MessageHandlerRegistry
+ */
+@SuppressWarnings("unchecked")
+class MessageHandlerRegistration implements Serializable {
+    private final Class<?> messageClass;
+    private final Object messageHandler;
+
+    MessageHandlerRegistration(Class<?> messageClass, ApplicationModel.MessageHandler<?> messageHandler) {
+        this(messageClass, (Object) messageHandler);
+    }
+
+    /**
+     * Constructor for subclasses that use another handler type than {@link ApplicationModel.MessageHandler}.
+     *
+     * @param messageClass the class of the messages to receive.
+     * @param messageHandler the message handler.
+     */
+    protected MessageHandlerRegistration(Class<?> messageClass, Object messageHandler) {
+        this.messageClass = messageClass;
+        this.messageHandler = messageHandler;
+    }
+
+    /**
+     * Returns the class of the messages that this registration accepts.
+     *
+     * @return the message class.
+     */
+    final Class<?> getMessageClass() {
+        return messageClass;
+    }
+
+    /**
+     * Checks whether this registration accepts messages of the specified concrete class.
+     *
+     * @param messageClass the class of the message.
+     * @return true if the message should be passed to {@link #handleMessage(ApplicationModel, Object)}.
+     */
+    boolean supports(Class<?> messageClass) {
+        return this.messageClass.isAssignableFrom(messageClass);
+    }
+
+    /**
+     * Returns the message handler of this registration.
+     *
+     * @return the message handler.
+     */
+    final Object getMessageHandler() {
+        return messageHandler;
+    }
+
+    /**
+     * Delivers the message to the message handler. The default implementation invokes the handler directly.
+     *
+     * @param source the model that originally broadcast the message.
+     * @param message the message.
+     */
+    void handleMessage(ApplicationModel source, Object message) {
+        ((ApplicationModel.MessageHandler) this.messageHandler).onMessage(source, message);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof MessageHandlerRegistration))
+            return false;
+
+        MessageHandlerRegistration that = (MessageHandlerRegistration) o;
+
+        if (!messageClass.equals(that.messageClass))
+            return false;
+        return messageHandler.equals(that.messageHandler);
+
+    }
+
+    @Override
+    public int hashCode() {
+        int result = messageClass.hashCode();
+        result = 31 * result + messageHandler.hashCode();
+        return result;
+    }
+
+    /**
+     * A message that has been received by a registration but not yet delivered to the handler.
+     */
+    static class PendingMessage implements Serializable {
+        final ApplicationModel source;
+        final Object message;
+
+        PendingMessage(ApplicationModel source, Object message) {
+            this.source = source;
+            this.message = message;
+        }
+    }
+}
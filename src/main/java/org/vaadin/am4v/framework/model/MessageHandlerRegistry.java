@@ -0,0 +1,140 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the message handlers of a single {@link ApplicationModel}. In addition to keeping track of the
+ * registrations, the registry maintains a dispatch table that maps concrete message classes to the handlers that
+ * accept them (i.e. handlers registered for the class itself or any of its supertypes). The table is populated lazily
+ * the first time a message class is dispatched and is cleared whenever a handler is registered or unregistered, so
+ * the cost of dispatching a message depends on the number of interested handlers only.
+ * <p>
+ * Handlers that have subscribed to a particular key are kept in separate registries, one per key, so that keyed
+ * messages are routed to the handlers of their key through a single hash lookup.
+ */
+final class MessageHandlerRegistry implements Serializable {
+
+    private static final MessageHandlerRegistration[] NO_HANDLERS = new MessageHandlerRegistration[0];
+
+    private final ListenerArray<MessageHandlerRegistration> registrations = new ListenerArray<>();
+    private transient Map<Class<?>, MessageHandlerRegistration[]> dispatchTable;
+    private Map<Object, MessageHandlerRegistry> keyedRegistries;
+
+    /**
+     * Adds the specified registration to the registry.
+     *
+     * @param registration the registration to add.
+     * @return true if the registration was added, false if it already existed.
+     */
+    boolean add(MessageHandlerRegistration registration) {
+        if (registrations.contains(registration)) {
+            return false;
+        }
+        registrations.add(registration);
+        dispatchTable = null;
+        return true;
+    }
+
+    /**
+     * Removes the specified registration from the registry.
+     *
+     * @param registration the registration to remove.
+     * @return true if the registration was removed, false if it did not exist.
+     */
+    boolean remove(MessageHandlerRegistration registration) {
+        if (registrations.remove(registration)) {
+            dispatchTable = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all registrations from the registry, including the keyed ones.
+     */
+    void clear() {
+        registrations.clear();
+        dispatchTable = null;
+        keyedRegistries = null;
+    }
+
+    /**
+     * Adds the specified registration to the registry of the specified key.
+     *
+     * @param key the key that the handler subscribes to (never {@code null}).
+     * @param registration the registration to add.
+     * @return true if the registration was added, false if it already existed.
+     */
+    boolean add(Object key, MessageHandlerRegistration registration) {
+        if (keyedRegistries == null) {
+            keyedRegistries = new HashMap<>();
+        }
+        return keyedRegistries.computeIfAbsent(key, k -> new MessageHandlerRegistry()).add(registration);
+    }
+
+    /**
+     * Removes the specified registration from the registry of the specified key.
+     *
+     * @param key the key that the handler has subscribed to.
+     * @param registration the registration to remove.
+     * @return true if the registration was removed, false if it did not exist.
+     */
+    boolean remove(Object key, MessageHandlerRegistration registration) {
+        MessageHandlerRegistry keyedRegistry = keyedRegistries == null ? null : keyedRegistries.get(key);
+        if (keyedRegistry != null && keyedRegistry.remove(registration)) {
+            if (keyedRegistry.registrations.isEmpty()) {
+                keyedRegistries.remove(key);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the handlers that have subscribed to the specified key and accept messages of the specified concrete
+     * class. Handlers registered without a key are not included.
+     *
+     * @see #getHandlers(Class)
+     * @param messageClass the concrete class of the message.
+     * @param key the key of the message.
+     * @return an array of handlers, possibly empty (never {@code null}).
+     */
+    MessageHandlerRegistration[] getHandlers(Class<?> messageClass, Object key) {
+        MessageHandlerRegistry keyedRegistry = keyedRegistries == null ? null : keyedRegistries.get(key);
+        return keyedRegistry == null ? NO_HANDLERS : keyedRegistry.getHandlers(messageClass);
+    }
+
+    /**
+     * Returns the handlers that accept messages of the specified concrete class, in registration order. Handlers that
+     * have subscribed to a key are not included. The returned array is shared and must not be modified by the caller,
+     * but it is safe to iterate over it even if handlers are registered or unregistered during the iteration.
+     *
+     * @param messageClass the concrete class of the message.
+     * @return an array of handlers, possibly empty (never {@code null}).
+     */
+    MessageHandlerRegistration[] getHandlers(Class<?> messageClass) {
+        if (dispatchTable == null) {
+            dispatchTable = new HashMap<>();
+        }
+        MessageHandlerRegistration[] handlers = dispatchTable.get(messageClass);
+        if (handlers == null) {
+            handlers = resolveHandlers(messageClass);
+            dispatchTable.put(messageClass, handlers);
+        }
+        return handlers;
+    }
+
+    private MessageHandlerRegistration[] resolveHandlers(Class<?> messageClass) {
+        List<MessageHandlerRegistration> handlers = new ArrayList<>();
+        for (Object registration : registrations.toArray()) {
+            if (((MessageHandlerRegistration) registration).supports(messageClass)) {
+                handlers.add((MessageHandlerRegistration) registration);
+            }
+        }
+        return handlers.isEmpty() ? NO_HANDLERS : handlers.toArray(new MessageHandlerRegistration[handlers.size()]);
+    }
+}
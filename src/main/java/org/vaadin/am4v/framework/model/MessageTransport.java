@@ -0,0 +1,54 @@
+package org.vaadin.am4v.framework.model;
+
+/**
+ * Interface for transports that carry {@link BroadcastScope#CLUSTER cluster scoped} messages between the
+ * {@link MessageBus}es of different nodes. Implementations are responsible for serializing the messages and for making
+ * sure that a message is not delivered back to the node that published it.
+ *
+ * @see LoopbackMessageTransport
+ * @see MessageBus#setTransport(MessageTransport)
+ */
+public interface MessageTransport {
+
+    /**
+     * Connects a message bus to the transport.
+     *
+     * @param receiver the receiver that will be invoked for every message published by the other nodes.
+     * @return a connection used to publish messages to the other nodes.
+     */
+    Connection connect(Receiver receiver);
+
+    /**
+     * A connection between a message bus and a transport.
+     */
+    interface Connection {
+
+        /**
+         * Publishes the specified message to all other nodes.
+         *
+         * @param key the key of the message, or {@code null} if it has no key.
+         * @param message the message to publish.
+         */
+        void publish(Object key, Object message);
+
+        /**
+         * Closes the connection. After this, the receiver will not receive any more messages.
+         */
+        void close();
+    }
+
+    /**
+     * Receiver of messages published by other nodes.
+     */
+    @FunctionalInterface
+    interface Receiver {
+
+        /**
+         * Called when a message published by another node has been received. The method may be called by any thread.
+         *
+         * @param key the key of the message, or {@code null} if it has no key.
+         * @param message the message.
+         */
+        void receive(Object key, Object message);
+    }
+}
@@ -0,0 +1,113 @@
+package org.vaadin.am4v.framework.model;
+
+import org.vaadin.am4v.framework.Registration;
+
+/**
+ * Base class of the {@link ApplicationProperty application properties} that are specialized for a primitive type. The
+ * value is stored as a primitive by the subclass and can be read and written through its primitive getter and setter
+ * without boxing. Listeners and validators registered through the primitive API are notified without allocating
+ * anything, so frequently updated values generate no garbage as long as no Vaadin value change listeners are
+ * registered (a bound field registers one).
+ * <p>
+ * The property still works as an ordinary Vaadin {@link com.vaadin.data.Property Property} of the corresponding
+ * wrapper type, e.g. when bound to a field. The value can never be {@code null}. Unlike
+ * {@link com.vaadin.data.util.ObjectProperty}, listeners are only notified when the value actually changes.
+ *
+ * @param <T> the wrapper type of the value.
+ * @param <L> the type of the primitive value change listeners.
+ * @param <V> the type of the primitive validators.
+ */
+abstract class PrimitiveApplicationProperty<T, L, V> extends ApplicationProperty<T> {
+
+    private final ListenerArray<L> primitiveValueChangeListeners = new ListenerArray<>();
+    private final ListenerArray<V> primitiveValidators = new ListenerArray<>();
+
+    PrimitiveApplicationProperty(T value, Class<T> type, boolean readOnly) {
+        super(value, type, readOnly);
+    }
+
+    /**
+     * Throws an exception if the property is read-only. Called by the primitive setters before they change the value.
+     *
+     * @throws ReadOnlyException if the property is read-only.
+     */
+    final void checkWritable() throws ReadOnlyException {
+        if (isReadOnly()) {
+            throw new ReadOnlyException();
+        }
+    }
+
+    /**
+     * Sets the value through the primitive setter of the subclass.
+     *
+     * @param newValue the new value (never {@code null}).
+     */
+    abstract void setBoxedValue(T newValue);
+
+    /**
+     * Notifies a single primitive value change listener.
+     *
+     * @param listener the listener to notify.
+     */
+    abstract void notifyPrimitiveListener(L listener);
+
+    /**
+     * Validates the current value with a single primitive validator.
+     *
+     * @param validator the validator to run.
+     * @return the validation result (never {@code null}).
+     */
+    abstract ValidationResult validatePrimitiveValue(V validator);
+
+    @Override
+    public void setValue(T newValue) throws ReadOnlyException {
+        if (newValue == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        if (primitiveValueChangeListeners == null) {
+            // Called by the constructor of ObjectProperty, the value is set by the constructor of the subclass
+            return;
+        }
+        setBoxedValue(newValue);
+    }
+
+    @Override
+    final void notifyValueChangeListeners() {
+        primitiveValueChangeListeners.fire((listener, property) -> property.notifyPrimitiveListener(listener), this);
+        super.notifyValueChangeListeners();
+    }
+
+    final Registration addPrimitiveValueChangeListener(L listener) {
+        return listener == null ? Registration.NONE : primitiveValueChangeListeners.add(listener);
+    }
+
+    final void removePrimitiveValueChangeListener(L listener) {
+        if (listener != null) {
+            primitiveValueChangeListeners.remove(listener);
+        }
+    }
+
+    final Registration addPrimitiveValidator(V validator) {
+        if (validator == null) {
+            return Registration.NONE;
+        }
+        Registration registration = primitiveValidators.add(validator);
+        invalidateValidationResult();
+        return () -> {
+            registration.remove();
+            invalidateValidationResult();
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    final ValidationResult validatePrimitiveValue() {
+        for (Object validator : primitiveValidators.toArray()) {
+            ValidationResult result = validatePrimitiveValue((V) validator);
+            if (result.isError()) {
+                return result;
+            }
+        }
+        return ValidationResult.ok();
+    }
+}
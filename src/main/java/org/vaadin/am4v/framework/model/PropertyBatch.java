@@ -0,0 +1,166 @@
+package org.vaadin.am4v.framework.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread bound batch within which the value change, enabled change and visible change notifications of
+ * {@link ApplicationProperty application properties} and {@link ApplicationAction application actions} are held back.
+ * When the outermost batch is closed, each property or action notifies its listeners once per kind of change, in the
+ * order the properties and actions were first changed. Enabled and visible change notifications are dropped entirely
+ * if the flag ends up having the same value as before the batch. Batches are opened by
+ * {@link ApplicationModel#batch(Runnable)} and by the trusted writes of {@link ApplicationModel}.
+ */
+final class PropertyBatch {
+
+    private static final ThreadLocal<PropertyBatch> CURRENT = new ThreadLocal<>();
+
+    private final Map<Object, Pending> pending = new LinkedHashMap<>();
+    private int depth;
+
+    private PropertyBatch() {
+    }
+
+    /**
+     * Runs the specified updates inside a batch, joining the current batch if there is one.
+     *
+     * @param updates the updates to run.
+     */
+    static void run(Runnable updates) {
+        PropertyBatch batch = CURRENT.get();
+        if (batch == null) {
+            batch = new PropertyBatch();
+            CURRENT.set(batch);
+        }
+        batch.depth++;
+        try {
+            updates.run();
+        } finally {
+            if (batch.depth == 1) {
+                try {
+                    batch.flush();
+                } finally {
+                    CURRENT.remove();
+                }
+            }
+            batch.depth--;
+        }
+    }
+
+    /**
+     * Defers the value change notification of the specified property to the end of the current batch.
+     *
+     * @param property the property whose value has changed.
+     * @return true if the notification was deferred, false if there is no current batch.
+     */
+    static boolean deferValueChange(ApplicationProperty<?> property) {
+        PropertyBatch batch = CURRENT.get();
+        if (batch == null) {
+            return false;
+        }
+        batch.getPending(property).valueChanged = true;
+        return true;
+    }
+
+    /**
+     * Defers the enabled change notification of the specified property or action to the end of the current batch.
+     *
+     * @param source the property or action whose enabled flag has changed.
+     * @param enabledBefore the value of the enabled flag before the change.
+     * @return true if the notification was deferred, false if there is no current batch.
+     */
+    static boolean deferEnabledChange(Object source, boolean enabledBefore) {
+        PropertyBatch batch = CURRENT.get();
+        if (batch == null) {
+            return false;
+        }
+        Pending p = batch.getPending(source);
+        if (!p.enabledChanged) {
+            p.enabledChanged = true;
+            p.enabledBefore = enabledBefore;
+        }
+        return true;
+    }
+
+    /**
+     * Defers the visible change notification of the specified property or action to the end of the current batch.
+     *
+     * @param source the property or action whose visible flag has changed.
+     * @param visibleBefore the value of the visible flag before the change.
+     * @return true if the notification was deferred, false if there is no current batch.
+     */
+    static boolean deferVisibleChange(Object source, boolean visibleBefore) {
+        PropertyBatch batch = CURRENT.get();
+        if (batch == null) {
+            return false;
+        }
+        Pending p = batch.getPending(source);
+        if (!p.visibleChanged) {
+            p.visibleChanged = true;
+            p.visibleBefore = visibleBefore;
+        }
+        return true;
+    }
+
+    private Pending getPending(Object source) {
+        Pending p = pending.get(source);
+        if (p == null) {
+            p = new Pending();
+            pending.put(source, p);
+        }
+        return p;
+    }
+
+    private void flush() {
+        // Listeners may change other properties while being notified, so keep going until nothing is pending.
+        RuntimeException firstError = null;
+        while (!pending.isEmpty()) {
+            Iterator<Map.Entry<Object, Pending>> it = pending.entrySet().iterator();
+            Map.Entry<Object, Pending> entry = it.next();
+            it.remove();
+            try {
+                entry.getValue().deliver(entry.getKey());
+            } catch (RuntimeException ex) {
+                if (firstError == null) {
+                    firstError = ex;
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    private static final class Pending {
+
+        boolean valueChanged;
+        boolean enabledChanged;
+        boolean enabledBefore;
+        boolean visibleChanged;
+        boolean visibleBefore;
+
+        void deliver(Object source) {
+            if (source instanceof ApplicationProperty) {
+                ApplicationProperty<?> property = (ApplicationProperty<?>) source;
+                if (enabledChanged && property.isEnabled() != enabledBefore) {
+                    property.notifyEnabledChangeListeners();
+                }
+                if (visibleChanged && property.isVisible() != visibleBefore) {
+                    property.notifyVisibleChangeListeners();
+                }
+                if (valueChanged) {
+                    property.notifyValueChangeListeners();
+                }
+            } else {
+                ApplicationAction action = (ApplicationAction) source;
+                if (enabledChanged && action.isEnabled() != enabledBefore) {
+                    action.notifyEnabledChangeListeners();
+                }
+                if (visibleChanged && action.isVisible() != visibleBefore) {
+                    action.notifyVisibleChangeListeners();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.vaadin.am4v.framework.model;
+
+import com.vaadin.data.Validator;
+
+/**
+ * A {@link Validator} that reports invalid values as {@link ValidationResult results} instead of exceptions. An
+ * {@link ApplicationProperty} validates its value by calling {@link #validateValue(Object)}, so no exceptions are
+ * thrown no matter how often the value is invalid. Elsewhere, e.g. when added to a Vaadin field, the validator
+ * behaves like any other validator.
+ *
+ * @see ApplicationProperty#getValidationResult()
+ */
+@FunctionalInterface
+public interface PropertyValidator extends Validator {
+
+    /**
+     * Validates the value.
+     *
+     * @param value the value to validate, may be {@code null}.
+     * @return the validation result (never {@code null}).
+     */
+    ValidationResult validateValue(Object value);
+
+    /**
+     * Validates the value, throwing an exception if it is invalid.
+     *
+     * @param value the value to validate, may be {@code null}.
+     * @throws InvalidValueException if the value is invalid.
+     */
+    @Override
+    default void validate(Object value) throws InvalidValueException {
+        validateValue(value).throwIfError();
+    }
+}
@@ -1,6 +1,7 @@
 package org.vaadin.am4v.framework.model;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 import com.vaadin.ui.UI;
 
@@ -18,14 +19,53 @@ public interface PushStrategy extends Serializable {
      */
     void execute(Runnable job);
 
+    /**
+     * Executes the given job safely and ends with a server push. The key identifies what the job updates (e.g. a
+     * property): strategies that batch jobs may discard a job that has not been executed yet when a new job with an
+     * equal key arrives, since the new job supersedes it. The default implementation ignores the key.
+     *
+     * @param key the key of the job, or {@code null} if the job should never be discarded.
+     * @param job the job to execute.
+     */
+    default void execute(Object key, Runnable job) {
+        execute(job);
+    }
+
+    /**
+     * Returns a strategy that performs the same pushes as this strategy but that can be used from background threads.
+     * This method must be called in the thread that has the current {@link UI}, before the work is handed over to a
+     * background thread. The default implementation returns this strategy, since strategies normally do not depend on
+     * the thread they are used in.
+     *
+     * @return a strategy that can be used from any thread.
+     * @throws IllegalStateException if the strategy depends on the current UI and there is none.
+     */
+    default PushStrategy bindToCurrentUI() {
+        return this;
+    }
+
     /**
      * Returns the default push strategy, which is to pass the job straight to the {@link UI#access(Runnable)} method
-     * of the current {@link UI}.
+     * of the current {@link UI}. Since there is no current UI in background threads, the strategy must be
+     * {@link #bindToCurrentUI() bound} to the UI before it is used from a background thread.
      * 
      * @see UI#getCurrent()
      * @return the default push strategy.
      */
     static PushStrategy getDefault() {
-        return (PushStrategy) job -> UI.getCurrent().access(job);
+        return CurrentUIPushStrategy.INSTANCE;
+    }
+
+    /**
+     * Returns a push strategy that always passes the job to the {@link UI#access(Runnable)} method of the specified
+     * {@link UI}. Unlike the {@link #getDefault() default strategy}, this strategy also works in background threads
+     * where there is no current UI, e.g. when used by asynchronous message handlers.
+     *
+     * @param ui the UI to push to.
+     * @return a push strategy bound to the UI.
+     */
+    static PushStrategy forUI(UI ui) {
+        Objects.requireNonNull(ui, "ui must not be null");
+        return (PushStrategy) ui::access;
     }
 }
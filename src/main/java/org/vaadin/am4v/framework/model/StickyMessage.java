@@ -0,0 +1,26 @@
+package org.vaadin.am4v.framework.model;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a message class as sticky. The root model of a model hierarchy remembers the latest sticky message of each
+ * message class (and each key, if the message was broadcast with one) that has been broadcast in or delivered to the
+ * hierarchy. When a model later registers a handler for the message class, the remembered messages are immediately
+ * passed to the new handler, with the root model as their source. This makes it possible for models that are created
+ * later to start from the latest known state instead of querying the backend again.
+ * <p>
+ * Sticky messages should therefore describe state (e.g. "the current selection is X") rather than events.
+ *
+ * @see ApplicationModel#clearStickyMessages(Class)
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface StickyMessage {
+}
@@ -0,0 +1,257 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.vaadin.am4v.framework.Registration;
+
+/**
+ * Incremental validation of a whole form (or any other group of properties) in an {@link ApplicationModel}. The graph
+ * consists of property nodes, which use the {@link ApplicationProperty#getValidationResult() validators of the
+ * properties themselves}, and {@link Rule rule} nodes, which may span several properties. The properties read by a rule
+ * are tracked automatically in the same way as with {@link ComputedProperty}:
+ * <pre>
+ * private final ValidationGraph validation = new ValidationGraph();
+ * ...
+ * validation.addProperties(name, email, password, passwordAgain);
+ * validation.addRule(() -&gt; Objects.equals(password.getValue(), passwordAgain.getValue()) ? ValidationResult.ok()
+ *     : ValidationResult.error("The passwords do not match"));
+ * save.setEnabledWhen(() -&gt; validation.getValid().getBoolean());
+ * </pre>
+ * When a property changes, only the nodes that depend on it are re-evaluated and the aggregate {@link #getValid()
+ * valid} property is updated incrementally, so the cost of keeping the state up to date is proportional to the change
+ * rather than to the size of the form. The dependencies are registered using weak references, which are not
+ * serialized, so a deserialized graph registers them again and re-evaluates all its nodes.
+ * <p>
+ * The graph is not thread safe and must only be used with the session locked.
+ */
+public class ValidationGraph implements Serializable {
+
+    private final Set<Node> nodes = new LinkedHashSet<>();
+    private final BooleanApplicationProperty valid = new BooleanApplicationProperty(true, true);
+    private int invalidCount;
+
+    /**
+     * Adds the specified property to the graph. The property is valid as long as its own validators accept its value.
+     *
+     * @param property the property to add.
+     * @return a registration for removing the property from the graph (never {@code null}).
+     */
+    public Registration addProperty(ApplicationProperty<?> property) {
+        Objects.requireNonNull(property, "property must not be null");
+        return addNode(new PropertyNode(property));
+    }
+
+    /**
+     * Adds all the specified properties to the graph.
+     *
+     * @see #addProperty(ApplicationProperty)
+     * @param properties the properties to add.
+     * @return a registration for removing all the properties from the graph (never {@code null}).
+     */
+    public Registration addProperties(ApplicationProperty<?>... properties) {
+        List<Registration> registrations = new ArrayList<>(properties.length);
+        for (ApplicationProperty<?> property : properties) {
+            registrations.add(addProperty(property));
+        }
+        return () -> registrations.forEach(Registration::remove);
+    }
+
+    /**
+     * Adds the specified rule to the graph. The rule is evaluated right away and then again whenever any of the
+     * properties it read the last time changes.
+     *
+     * @param rule the rule to add.
+     * @return a registration for removing the rule from the graph (never {@code null}).
+     */
+    public Registration addRule(Rule rule) {
+        Objects.requireNonNull(rule, "rule must not be null");
+        return addNode(new RuleNode(rule));
+    }
+
+    /**
+     * Removes all properties and rules from the graph, making it valid.
+     */
+    public void clear() {
+        new ArrayList<>(nodes).forEach(this::removeNode);
+    }
+
+    /**
+     * Re-evaluates all the nodes of the graph. This is only needed if something the graph cannot track has changed,
+     * such as the validators of a property or a mutable value object.
+     */
+    public void revalidate() {
+        nodes.forEach(Node::evaluate);
+    }
+
+    /**
+     * Read-only property that is true when all the nodes of the graph are valid. Actions can use it as a
+     * {@link ApplicationAction#setEnabledWhen(ComputedProperty.Expression) condition}.
+     *
+     * @return the aggregate valid property.
+     */
+    public BooleanApplicationProperty getValid() {
+        return valid;
+    }
+
+    /**
+     * Checks whether all the nodes of the graph are valid.
+     *
+     * @return true if valid, false otherwise.
+     */
+    public boolean isValid() {
+        return invalidCount == 0;
+    }
+
+    /**
+     * Returns the results of all the nodes that are currently invalid.
+     *
+     * @return a list of failed validation results, possibly empty (never {@code null}).
+     */
+    public List<ValidationResult> getErrors() {
+        if (invalidCount == 0) {
+            return Collections.emptyList();
+        }
+        List<ValidationResult> errors = new ArrayList<>(invalidCount);
+        for (Node node : nodes) {
+            if (node.result.isError()) {
+                errors.add(node.result);
+            }
+        }
+        return errors;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // The properties may not have been fully restored yet, so wait until the whole object graph has been read
+        in.registerValidation(() -> nodes.forEach(Node::reconnect), 0);
+    }
+
+    private Registration addNode(Node node) {
+        nodes.add(node);
+        node.evaluate();
+        return () -> removeNode(node);
+    }
+
+    private void removeNode(Node node) {
+        if (nodes.remove(node)) {
+            node.release();
+            setResult(node, ValidationResult.ok());
+        }
+    }
+
+    private void setResult(Node node, ValidationResult result) {
+        boolean wasError = node.result.isError();
+        node.result = result;
+        if (wasError != result.isError()) {
+            invalidCount += result.isError() ? 1 : -1;
+            valid.setTrustedValue(invalidCount == 0);
+        }
+    }
+
+    /**
+     * Functional interface for validation rules that may span several properties.
+     */
+    @FunctionalInterface
+    public interface Rule extends Serializable {
+
+        /**
+         * Validates the properties. Any application properties read by this method become dependencies of the rule.
+         *
+         * @return the validation result (never {@code null}).
+         */
+        ValidationResult validate();
+    }
+
+    /**
+     * A node of the graph, whose result is kept up to date while the node is part of the graph.
+     */
+    private abstract class Node implements Serializable {
+
+        // Held strongly by the node, since the properties only reference it weakly
+        final ApplicationProperty.Dependent invalidator = dependency -> evaluate();
+        ValidationResult result = ValidationResult.ok();
+
+        abstract void evaluate();
+
+        abstract void release();
+
+        /**
+         * Registers the dependencies of the node again after deserialization and re-evaluates the node.
+         */
+        abstract void reconnect();
+    }
+
+    private final class PropertyNode extends Node {
+
+        private final ApplicationProperty<?> property;
+        private Registration registration;
+
+        PropertyNode(ApplicationProperty<?> property) {
+            this.property = property;
+            registration = property.addWeakDependent(invalidator);
+        }
+
+        @Override
+        void evaluate() {
+            setResult(this, property.getValidationResult());
+        }
+
+        @Override
+        void release() {
+            registration.remove();
+        }
+
+        @Override
+        void reconnect() {
+            registration = property.addWeakDependent(invalidator);
+            evaluate();
+        }
+    }
+
+    private final class RuleNode extends Node {
+
+        private final Rule rule;
+        private transient List<Registration> registrations = Collections.emptyList();
+
+        RuleNode(Rule rule) {
+            this.rule = rule;
+        }
+
+        @Override
+        void evaluate() {
+            release();
+            ValidationResult[] holder = new ValidationResult[1];
+            List<Registration> newRegistrations = new ArrayList<>();
+            try {
+                for (ApplicationProperty<?> dependency : DependencyTracker.track(() -> holder[0] = rule.validate())) {
+                    newRegistrations.add(dependency.addWeakDependent(invalidator));
+                }
+            } finally {
+                registrations = newRegistrations;
+            }
+            setResult(this, Objects.requireNonNull(holder[0], "rule must not return null"));
+        }
+
+        @Override
+        void release() {
+            if (registrations != null) {
+                registrations.forEach(Registration::remove);
+            }
+            registrations = Collections.emptyList();
+        }
+
+        @Override
+        void reconnect() {
+            // Tracks and registers the dependencies again
+            evaluate();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.vaadin.am4v.framework.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.vaadin.data.Validator;
+
+/**
+ * The result of validating the value of an {@link ApplicationProperty}. Unlike {@link Validator#validate(Object)},
+ * which throws an exception when the value is invalid, a validation result reports the outcome as a plain value, which
+ * makes it cheap to check and possible to cache.
+ *
+ * @see ApplicationProperty#getValidationResult()
+ */
+public final class ValidationResult implements Serializable {
+
+    private static final ValidationResult OK = new ValidationResult(null);
+
+    private final String errorMessage;
+
+    private ValidationResult(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Returns the result of a successful validation.
+     *
+     * @return the shared successful result.
+     */
+    public static ValidationResult ok() {
+        return OK;
+    }
+
+    /**
+     * Returns the result of a failed validation.
+     *
+     * @param errorMessage the message describing why the value is invalid.
+     * @return a failed result.
+     */
+    public static ValidationResult error(String errorMessage) {
+        return new ValidationResult(Objects.requireNonNull(errorMessage, "errorMessage must not be null"));
+    }
+
+    /**
+     * Checks whether the value was valid.
+     *
+     * @return true if the validation succeeded, false otherwise.
+     */
+    public boolean isOk() {
+        return errorMessage == null;
+    }
+
+    /**
+     * Checks whether the value was invalid.
+     *
+     * @return true if the validation failed, false otherwise.
+     */
+    public boolean isError() {
+        return errorMessage != null;
+    }
+
+    /**
+     * Returns the message describing why the value is invalid.
+     *
+     * @return the error message, or an empty {@code Optional} if the value was valid.
+     */
+    public Optional<String> getErrorMessage() {
+        return Optional.ofNullable(errorMessage);
+    }
+
+    /**
+     * Throws an {@link Validator.InvalidValueException} if the value was invalid, for code that expects validation
+     * failures to be reported as exceptions.
+     *
+     * @throws Validator.InvalidValueException if the validation failed.
+     */
+    public void throwIfError() throws Validator.InvalidValueException {
+        if (errorMessage != null) {
+            throw new Validator.InvalidValueException(errorMessage);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return errorMessage == null ? "ValidationResult[OK]" : "ValidationResult[" + errorMessage + "]";
+    }
+}
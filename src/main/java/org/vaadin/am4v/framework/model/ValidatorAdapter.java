@@ -0,0 +1,103 @@
+package org.vaadin.am4v.framework.model;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.vaadin.data.Validator;
+import com.vaadin.data.validator.AbstractValidator;
+
+/**
+ * Runs a Vaadin {@link Validator} and turns the outcome into a {@link ValidationResult}, throwing as few exceptions as
+ * possible:
+ * <ul>
+ * <li>{@link PropertyValidator}s report the result themselves.</li>
+ * <li>{@link AbstractValidator}s are checked the same way as by {@link AbstractValidator#validate(Object)}, i.e. with
+ * {@code isValidType} and {@code isValidValue}. Those methods are protected, so they are called reflectively. A
+ * validator that overrides {@code validate} is treated like any other validator, since it may check more than
+ * that.</li>
+ * <li>Any other validator is called and its {@link Validator.InvalidValueException} caught.</li>
+ * </ul>
+ */
+final class ValidatorAdapter {
+
+    private static final Method IS_VALID_TYPE = findMethod("isValidType");
+    private static final Method IS_VALID_VALUE = findMethod("isValidValue");
+    private static final ClassValue<Boolean> OVERRIDES_VALIDATE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("validate", Object.class).getDeclaringClass() != AbstractValidator.class;
+            } catch (NoSuchMethodException ex) {
+                return true;
+            }
+        }
+    };
+
+    private ValidatorAdapter() {
+    }
+
+    private static Method findMethod(String name) {
+        try {
+            Method method = AbstractValidator.class.getDeclaredMethod(name, Object.class);
+            method.setAccessible(true);
+            return method;
+        } catch (NoSuchMethodException | RuntimeException ex) {
+            Logger.getLogger(ValidatorAdapter.class.getName()).log(Level.WARNING,
+                "Could not access AbstractValidator." + name + ", validators will report failures as exceptions", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Validates the value using the specified validator.
+     *
+     * @param validator the validator to run.
+     * @param value the value to validate.
+     * @return the validation result (never {@code null}).
+     */
+    static ValidationResult validate(Validator validator, Object value) {
+        if (validator instanceof PropertyValidator) {
+            return ((PropertyValidator) validator).validateValue(value);
+        }
+        if (validator instanceof AbstractValidator && IS_VALID_TYPE != null && IS_VALID_VALUE != null
+            && !OVERRIDES_VALIDATE.get(validator.getClass())) {
+            return validate((AbstractValidator<?>) validator, value);
+        }
+        try {
+            validator.validate(value);
+            return ValidationResult.ok();
+        } catch (Validator.InvalidValueException ex) {
+            return toValidationResult(ex);
+        }
+    }
+
+    private static ValidationResult validate(AbstractValidator<?> validator, Object value) {
+        try {
+            // isValidType ensures that isValidValue can cast the value to the type of the validator
+            if ((Boolean) IS_VALID_TYPE.invoke(validator, value) && (Boolean) IS_VALID_VALUE.invoke(validator, value)) {
+                return ValidationResult.ok();
+            }
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Validator.InvalidValueException) {
+                return toValidationResult((Validator.InvalidValueException) cause);
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+        // Same formatting as AbstractValidator.validate(Object)
+        String message = validator.getErrorMessage();
+        return ValidationResult.error(message == null ? "" : message.replace("{0}", String.valueOf(value)));
+    }
+
+    private static ValidationResult toValidationResult(Validator.InvalidValueException ex) {
+        return ValidationResult.error(ex.getMessage() == null ? "" : ex.getMessage());
+    }
+}
@@ -0,0 +1,438 @@
+package org.vaadin.am4v.framework.ui;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.vaadin.am4v.framework.SharedExecutors;
+import org.vaadin.am4v.framework.model.PushStrategy;
+
+import com.vaadin.ui.UI;
+
+/**
+ * A {@link PushStrategy} that queues the jobs of a single {@link UI} and executes them in batches, one
+ * {@link UI#access(Runnable)} call per batch. A batch is drained when the {@link #getFlushInterval() flush interval}
+ * has passed since the first job of the batch was queued, or as soon as the queue contains
+ * {@link #getFlushThreshold() enough jobs}, whichever happens first. This means that a background producer that updates
+ * ten properties acquires the session lock and pushes once instead of ten times.
+ * <p>
+ * Jobs that are executed with a {@link #execute(Object, Runnable) key} supersede any queued job with an equal key,
+ * unless {@link #setDiscardSupersededJobs(boolean) disabled}. The superseded job is discarded and the new job is moved
+ * to the end of the queue.
+ * <p>
+ * There is never more than one pending {@link UI#access(Runnable)} call per UI, and the queue itself is bounded by
+ * {@link #getMaxQueueSize()}. When a slow or stalled client lets the queue fill up, the
+ * {@link #getOverflowPolicy() overflow policy} decides which jobs to give up, so the memory used by a UI stays flat
+ * regardless of the speed of the client. Superseded jobs are always discarded first.
+ * <p>
+ * The {@link #getQueueDepth() queue depth} and the latency of the latest drain are exposed for tuning the interval.
+ * All strategies are also tracked by the {@link PushQueueMonitor#getDefault() default monitor}, which can find the
+ * sessions that are lagging the most.
+ * The queue and the scheduler are not serialized: jobs that are pending when the session is serialized are lost, and a
+ * deserialized strategy drains every job immediately.
+ */
+public class BatchingPushStrategy implements PushStrategy {
+
+    /**
+     * The default flush interval in milliseconds.
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL = 50;
+
+    /**
+     * The default number of queued jobs that triggers an immediate flush.
+     */
+    public static final int DEFAULT_FLUSH_THRESHOLD = 100;
+
+    /**
+     * The default maximum number of queued jobs.
+     */
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 1000;
+
+    /**
+     * Enumeration of the policies that can be applied when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discards the oldest queued job to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Discards all queued jobs and replaces them with the {@link #setRefreshJob(Runnable) refresh job}, which
+         * should bring the UI up to date in one go (e.g. by reloading the data of the models). Jobs executed after the
+         * overflow are queued after the refresh job as usual. If no refresh job has been set, the oldest job is
+         * discarded instead.
+         */
+        REFRESH
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(BatchingPushStrategy.class.getName());
+
+    private final UI ui;
+    private transient ScheduledExecutorService scheduler;
+    private transient Map<Object, Runnable> queue;
+    private transient long oldestJobQueuedAt;
+    private transient boolean flushScheduled;
+    private transient boolean accessRequested;
+    private volatile long flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private volatile int flushThreshold = DEFAULT_FLUSH_THRESHOLD;
+    private volatile boolean discardSupersededJobs = true;
+    private volatile int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private volatile Runnable refreshJob;
+    private volatile long discardedJobCount;
+    private volatile long lastDrainLatency;
+    private volatile int lastBatchSize;
+
+    /**
+     * Creates a new {@code BatchingPushStrategy} for the specified UI that uses a shared daemon thread for scheduling
+     * the flushes. The thread is one of the {@link SharedExecutors shared executors}.
+     *
+     * @param ui the UI to push to.
+     */
+    public BatchingPushStrategy(UI ui) {
+        this(ui, DefaultScheduler.INSTANCE);
+    }
+
+    /**
+     * Creates a new {@code BatchingPushStrategy} for the specified UI that uses the specified scheduler for scheduling
+     * the flushes.
+     *
+     * @param ui the UI to push to.
+     * @param scheduler the scheduler to use.
+     */
+    public BatchingPushStrategy(UI ui, ScheduledExecutorService scheduler) {
+        this.ui = Objects.requireNonNull(ui, "ui must not be null");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler must not be null");
+        PushQueueMonitor.getDefault().register(this);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        PushQueueMonitor.getDefault().register(this);
+    }
+
+    @Override
+    public void execute(Runnable job) {
+        execute(null, job);
+    }
+
+    @Override
+    public void execute(Object key, Runnable job) {
+        Objects.requireNonNull(job, "job must not be null");
+        boolean flushNow = false;
+        boolean scheduleFlush = false;
+        synchronized (this) {
+            if (queue == null) {
+                queue = new LinkedHashMap<>();
+            }
+            if (queue.isEmpty()) {
+                oldestJobQueuedAt = System.nanoTime();
+            }
+            if (key == null || !discardSupersededJobs) {
+                // Every job gets its own key, so nothing is discarded
+                key = new Object();
+            } else if (queue.remove(key) != null) {
+                ++discardedJobCount;
+            }
+            if (queue.size() >= maxQueueSize) {
+                handleOverflow();
+            }
+            queue.put(key, job);
+            if (!accessRequested) {
+                if (queue.size() >= flushThreshold || scheduler == null) {
+                    flushNow = true;
+                } else if (!flushScheduled) {
+                    flushScheduled = true;
+                    scheduleFlush = true;
+                }
+            }
+        }
+        if (flushNow) {
+            flush();
+        } else if (scheduleFlush) {
+            scheduler.schedule(this::flushIfPending, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Drains the queue right away instead of waiting for the flush interval to pass.
+     */
+    public void flush() {
+        synchronized (this) {
+            accessRequested = true;
+        }
+        try {
+            ui.access(this::drain);
+        } catch (RuntimeException ex) {
+            // Most likely the UI has been detached, in which case nobody is interested in the jobs anymore
+            LOGGER.log(Level.FINE, "Could not flush push queue, discarding pending jobs", ex);
+            synchronized (this) {
+                if (queue != null) {
+                    discardedJobCount += queue.size();
+                    queue.clear();
+                }
+                accessRequested = false;
+            }
+        }
+    }
+
+    private void handleOverflow() {
+        Runnable refresh = refreshJob;
+        if (overflowPolicy == OverflowPolicy.REFRESH && refresh != null) {
+            discardedJobCount += queue.size();
+            queue.clear();
+            queue.put(new Object(), refresh);
+        }
+        // The refresh job itself may have filled the queue if maxQueueSize is 1
+        if (queue.size() >= maxQueueSize) {
+            Iterator<Object> oldest = queue.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+            ++discardedJobCount;
+        }
+    }
+
+    private void flushIfPending() {
+        synchronized (this) {
+            // The queue may already have been drained because the threshold was reached
+            if (accessRequested || queue == null || queue.isEmpty()) {
+                return;
+            }
+        }
+        flush();
+    }
+
+    private void drain() {
+        List<Runnable> jobs;
+        synchronized (this) {
+            accessRequested = false;
+            flushScheduled = false;
+            if (queue == null || queue.isEmpty()) {
+                return;
+            }
+            lastDrainLatency = System.nanoTime() - oldestJobQueuedAt;
+            jobs = new ArrayList<>(queue.values());
+            queue.clear();
+        }
+        lastBatchSize = jobs.size();
+        for (Runnable job : jobs) {
+            try {
+                job.run();
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.SEVERE, "Error executing push job", ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the UI that this strategy pushes to.
+     *
+     * @return the UI.
+     */
+    public UI getUI() {
+        return ui;
+    }
+
+    /**
+     * Returns the maximum time that a job waits in the queue before the queue is drained.
+     *
+     * @return the flush interval in milliseconds.
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Sets the maximum time that a job waits in the queue before the queue is drained. Shorter intervals give lower
+     * latency, longer intervals give larger batches.
+     *
+     * @param flushInterval the flush interval in milliseconds (must not be negative).
+     * @return {@code this}, to make method chaining possible.
+     */
+    public BatchingPushStrategy setFlushInterval(long flushInterval) {
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("flushInterval must not be negative");
+        }
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    /**
+     * Returns the number of queued jobs that triggers an immediate flush.
+     *
+     * @return the flush threshold.
+     */
+    public int getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    /**
+     * Sets the number of queued jobs that triggers an immediate flush.
+     *
+     * @param flushThreshold the flush threshold (must be positive).
+     * @return {@code this}, to make method chaining possible.
+     */
+    public BatchingPushStrategy setFlushThreshold(int flushThreshold) {
+        if (flushThreshold < 1) {
+            throw new IllegalArgumentException("flushThreshold must be positive");
+        }
+        this.flushThreshold = flushThreshold;
+        return this;
+    }
+
+    /**
+     * Returns whether queued jobs are discarded when a new job with an equal key is executed.
+     *
+     * @return true if superseded jobs are discarded, false if all jobs are executed.
+     */
+    public boolean isDiscardSupersededJobs() {
+        return discardSupersededJobs;
+    }
+
+    /**
+     * Sets whether queued jobs should be discarded when a new job with an equal key is executed.
+     *
+     * @param discardSupersededJobs true to discard superseded jobs, false to execute all jobs.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public BatchingPushStrategy setDiscardSupersededJobs(boolean discardSupersededJobs) {
+        this.discardSupersededJobs = discardSupersededJobs;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of jobs that can be waiting in the queue.
+     *
+     * @return the maximum queue size.
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Sets the maximum number of jobs that can be waiting in the queue.
+     *
+     * @param maxQueueSize the maximum queue size (must be positive).
+     * @return {@code this}, to make method chaining possible.
+     */
+    public BatchingPushStrategy setMaxQueueSize(int maxQueueSize) {
+        if (maxQueueSize < 1) {
+            throw new IllegalArgumentException("maxQueueSize must be positive");
+        }
+        this.maxQueueSize = maxQueueSize;
+        return this;
+    }
+
+    /**
+     * Returns the policy to apply when the queue is full.
+     *
+     * @return the overflow policy (never {@code null}).
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets the policy to apply when the queue is full.
+     *
+     * @param overflowPolicy the overflow policy.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public BatchingPushStrategy setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy must not be null");
+        return this;
+    }
+
+    /**
+     * Returns the job that replaces the queued jobs when the {@link OverflowPolicy#REFRESH} policy is applied.
+     *
+     * @return the refresh job, or {@code null} if none has been set.
+     */
+    public Runnable getRefreshJob() {
+        return refreshJob;
+    }
+
+    /**
+     * Sets the job that replaces the queued jobs when the {@link OverflowPolicy#REFRESH} policy is applied.
+     *
+     * @param refreshJob the refresh job, or {@code null} to discard the oldest job instead.
+     * @return {@code this}, to make method chaining possible.
+     */
+    public BatchingPushStrategy setRefreshJob(Runnable refreshJob) {
+        this.refreshJob = refreshJob;
+        return this;
+    }
+
+    /**
+     * Returns the number of jobs currently waiting in the queue.
+     *
+     * @return the queue depth.
+     */
+    public synchronized int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Returns the time that the oldest job of the latest batch spent waiting before the batch was drained.
+     *
+     * @return the drain latency in milliseconds.
+     */
+    public long getLastDrainLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(lastDrainLatency);
+    }
+
+    /**
+     * Returns the number of jobs that were executed in the latest batch.
+     *
+     * @return the batch size.
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Returns how long the queued jobs have been waiting to be drained. For a healthy client, this stays below the
+     * flush interval.
+     *
+     * @return the lag in milliseconds, or 0 if the queue is empty.
+     */
+    public synchronized long getLag() {
+        if (queue == null || queue.isEmpty()) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestJobQueuedAt);
+    }
+
+    /**
+     * Returns the total number of jobs that have been discarded because they were superseded, because the queue
+     * overflowed or because the UI could no longer be accessed.
+     *
+     * @return the number of discarded jobs.
+     */
+    public long getDiscardedJobCount() {
+        return discardedJobCount;
+    }
+
+    /**
+     * Holder of the shared scheduler, which is only created when first needed.
+     */
+    private static final class DefaultScheduler {
+
+        static final ScheduledExecutorService INSTANCE = SharedExecutors.register(
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "BatchingPushStrategy");
+                thread.setDaemon(true);
+                return thread;
+            }));
+    }
+}
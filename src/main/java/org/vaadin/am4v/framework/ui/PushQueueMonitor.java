@@ -0,0 +1,102 @@
+package org.vaadin.am4v.framework.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps track of {@link BatchingPushStrategy} instances in order to find the UIs whose clients are not keeping up with
+ * the server pushes. The strategies are referenced weakly, so the monitor does not prevent UIs from being garbage
+ * collected.
+ */
+public class PushQueueMonitor {
+
+    private static final PushQueueMonitor DEFAULT = new PushQueueMonitor();
+
+    private final Set<BatchingPushStrategy> strategies = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * Returns the default monitor, which tracks all {@link BatchingPushStrategy} instances of the JVM (or rather the
+     * class loader).
+     *
+     * @return the default monitor.
+     */
+    public static PushQueueMonitor getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Starts tracking the specified strategy.
+     *
+     * @param strategy the strategy to track.
+     */
+    public synchronized void register(BatchingPushStrategy strategy) {
+        if (strategy != null) {
+            strategies.add(strategy);
+        }
+    }
+
+    /**
+     * Returns the number of strategies currently tracked.
+     *
+     * @return the number of strategies.
+     */
+    public synchronized int getStrategyCount() {
+        return strategies.size();
+    }
+
+    /**
+     * Returns the total number of jobs waiting in the queues of all tracked strategies.
+     *
+     * @return the total queue depth.
+     */
+    public int getTotalQueueDepth() {
+        int depth = 0;
+        for (BatchingPushStrategy strategy : snapshot()) {
+            depth += strategy.getQueueDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the strategies whose queued jobs have been waiting the longest, worst first. Strategies with empty queues
+     * are not included.
+     *
+     * @see BatchingPushStrategy#getLag()
+     * @param limit the maximum number of strategies to return.
+     * @return a list of strategies, possibly empty (never {@code null}).
+     */
+    public List<BatchingPushStrategy> getWorstLagging(int limit) {
+        List<LaggingStrategy> lagging = new ArrayList<>();
+        for (BatchingPushStrategy strategy : snapshot()) {
+            if (strategy.getQueueDepth() > 0) {
+                lagging.add(new LaggingStrategy(strategy, strategy.getLag()));
+            }
+        }
+        // Sort by a snapshot of the lag, since the lag keeps changing while we sort
+        lagging.sort(Comparator.comparingLong((LaggingStrategy l) -> l.lag).reversed());
+        List<BatchingPushStrategy> result = new ArrayList<>();
+        for (int i = 0; i < lagging.size() && i < limit; ++i) {
+            result.add(lagging.get(i).strategy);
+        }
+        return result;
+    }
+
+    private synchronized List<BatchingPushStrategy> snapshot() {
+        return new ArrayList<>(strategies);
+    }
+
+    private static final class LaggingStrategy {
+
+        final BatchingPushStrategy strategy;
+        final long lag;
+
+        LaggingStrategy(BatchingPushStrategy strategy, long lag) {
+            this.strategy = strategy;
+            this.lag = lag;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.vaadin.am4v.framework.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Checks that notifying listeners through a {@link ListenerArray} does not allocate anything, neither directly nor
+ * through the properties that use it.
+ */
+public class ListenerArrayTest {
+
+    private static final int WARM_UP_ITERATIONS = 100_000;
+    private static final int ITERATIONS = 10_000;
+    private static final int ROUNDS = 5;
+
+    private ThreadMXBean threadMXBean;
+    private int notifications;
+
+    @Before
+    public void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean);
+        threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void fire_doesNotAllocate() {
+        ListenerArray<Runnable> listeners = new ListenerArray<>();
+        listeners.add(() -> ++notifications);
+        listeners.add(() -> ++notifications);
+        Object source = new Object();
+        Runnable fire = () -> listeners.fire((listener, s) -> listener.run(), source);
+
+        assertEquals(0, allocatedBytes(fire));
+        assertEquals(2 * (WARM_UP_ITERATIONS + ROUNDS * ITERATIONS), notifications);
+    }
+
+    @Test
+    public void setEnabled_doesNotAllocate() {
+        ApplicationProperty<String> property = new ApplicationProperty<>("value");
+        property.addEnabledChangeListener(source -> ++notifications);
+        Runnable toggle = () -> property.setEnabled(!property.isEnabled());
+
+        assertEquals(0, allocatedBytes(toggle));
+        assertEquals(WARM_UP_ITERATIONS + ROUNDS * ITERATIONS, notifications);
+    }
+
+    @Test
+    public void setInt_doesNotAllocate() {
+        IntApplicationProperty property = new IntApplicationProperty(0);
+        property.addIntValueChangeListener(p -> ++notifications);
+        Runnable increment = () -> property.setInt(property.getInt() + 1);
+
+        assertEquals(0, allocatedBytes(increment));
+        assertEquals(WARM_UP_ITERATIONS + ROUNDS * ITERATIONS, notifications);
+        assertEquals(WARM_UP_ITERATIONS + ROUNDS * ITERATIONS, property.getInt());
+    }
+
+    /**
+     * Runs the action repeatedly after a warm-up and returns the number of bytes the runs allocated, excluding the
+     * allocations (if any) of the measurement itself. The runs are measured a few times and the smallest count is
+     * returned, so that one-off allocations by the JVM (e.g. when recompiling) are not blamed on the action. Anything
+     * allocated by the action itself shows up in every round.
+     */
+    private long allocatedBytes(Runnable action) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; ++i) {
+            action.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        long overhead = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; ++round) {
+            start = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < ITERATIONS; ++i) {
+                action.run();
+            }
+            allocated = Math.min(allocated, threadMXBean.getThreadAllocatedBytes(threadId) - start - overhead);
+        }
+        return allocated;
+    }
+}